@@ -0,0 +1,30 @@
+package com.tj.core.utils.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，默认附带GC分析器以输出分配速率，结果以JSON格式写入target/result.json
+ * <p>
+ * 支持JMH的全部命令行参数，例如只运行扇出测试：java -jar target/benchmarks.jar SubmitSyncBenchmark
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/result.json")
+                .build()).run();
+    }
+}
@@ -0,0 +1,22 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.concurrent.executor.AbstractSyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+
+/**
+ * 空任务执行器，用于测量编排本身的开销
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class NoopSyncTaskExecutor extends AbstractSyncTaskExecutor<Integer, Integer> {
+
+    public NoopSyncTaskExecutor(int id) {
+        super(new TaskParam<>(id, id));
+    }
+
+    @Override
+    public Integer invoke(Integer param) {
+        return param;
+    }
+}
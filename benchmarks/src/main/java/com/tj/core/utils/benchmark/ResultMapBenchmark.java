@@ -0,0 +1,150 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.param.TaskResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结果集合的写入开销：收集结果时的单线程写入，以及多个线程并发写入同一结果集合时的竞争
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultMapBenchmark {
+
+    @Param({"10", "100", "10000"})
+    private int resultCount;
+
+    private List<TaskParam<Integer>> params;
+
+    private List<TaskResult<Integer>> results;
+
+    /**
+     * 并发合并时共享的结果集合
+     */
+    private Map<TaskParam<Integer>, TaskResult<Integer>> sharedMap;
+
+    /**
+     * 并发写入时共享的结果写入器
+     */
+    private TaskResults.Builder<Integer, Integer> sharedBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        params = new ArrayList<>(resultCount);
+        results = new ArrayList<>(resultCount);
+
+        for (int i = 0; i < resultCount; i++) {
+
+            params.add(new TaskParam<>(i, i));
+
+            TaskResult<Integer> taskResult = new TaskResult<>();
+            taskResult.setData(i);
+            results.add(taskResult);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetShared() {
+        sharedMap = new ConcurrentHashMap<>(20);
+        sharedBuilder = new TaskResults.Builder<>(resultCount);
+    }
+
+    /**
+     * 基于ConcurrentHashMap收集结果，作为对照
+     */
+    @Benchmark
+    public Map<TaskParam<Integer>, TaskResult<Integer>> collect() {
+
+        Map<TaskParam<Integer>, TaskResult<Integer>> resultMap = new ConcurrentHashMap<>(20);
+
+        for (int i = 0; i < resultCount; i++) {
+
+            resultMap.put(params.get(i), results.get(i));
+        }
+
+        return resultMap;
+    }
+
+    /**
+     * 与TaskExecuteManager当前收集结果的方式一致，按位置写入预分配的数组
+     */
+    @Benchmark
+    public TaskResults<Integer, Integer> collectIndexed() {
+
+        TaskResults.Builder<Integer, Integer> taskResults = new TaskResults.Builder<>(resultCount);
+
+        for (int i = 0; i < resultCount; i++) {
+
+            taskResults.set(i, params.get(i), results.get(i));
+        }
+
+        return taskResults.build();
+    }
+
+    /**
+     * 多个线程交错写入同一ConcurrentHashMap中各自任务的结果，作为对照
+     */
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public Map<TaskParam<Integer>, TaskResult<Integer>> contendedPut(ThreadParams threadParams) {
+
+        int threadIndex = threadParams.getGroupThreadIndex();
+        int threadCount = threadParams.getGroupThreadCount();
+
+        for (int i = threadIndex; i < resultCount; i += threadCount) {
+
+            sharedMap.put(params.get(i), results.get(i));
+        }
+
+        return sharedMap;
+    }
+
+    /**
+     * 与任务线程写入结果的方式一致，多个线程交错写入同一结果写入器中各自任务的结果
+     */
+    @Benchmark
+    @Group("contendedIndexed")
+    @GroupThreads(4)
+    public TaskResults<Integer, Integer> contendedSet(ThreadParams threadParams) {
+
+        int threadIndex = threadParams.getGroupThreadIndex();
+        int threadCount = threadParams.getGroupThreadCount();
+
+        for (int i = threadIndex; i < resultCount; i += threadCount) {
+
+            sharedBuilder.set(i, params.get(i), results.get(i));
+        }
+
+        return sharedBuilder.build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.retries.RetriesExecuteUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试循环的开销，重试间隔为0以排除等待时间
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetriesBenchmark {
+
+    private static final int RETRIES = 3;
+
+    @Benchmark
+    public Integer firstAttemptSucceeds() throws Exception {
+        return RetriesExecuteUtil.run((param, retries) -> param, 1, RETRIES, 0);
+    }
+
+    @Benchmark
+    public Integer lastAttemptSucceeds() throws Exception {
+
+        return RetriesExecuteUtil.run((param, retries) -> {
+
+            if (retries <= RETRIES) {
+
+                throw new IllegalStateException("attempt " + retries);
+            }
+
+            return param;
+
+        }, 1, RETRIES, 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.executor.TaskExecuteManager;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadpool.CommonThreadPoolExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行提交的扇出开销，任务本身为空操作
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmitSyncBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    private int taskCount;
+
+    private ExecutorService executor;
+
+    private List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        executor = CommonThreadPoolExecutors.newFixedThreadPool("benchmark", 4, 20000);
+
+        syncTaskExecutors = new ArrayList<>(taskCount);
+
+        for (int i = 0; i < taskCount; i++) {
+
+            syncTaskExecutors.add(new NoopSyncTaskExecutor(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Map<TaskParam<Integer>, TaskResult<Integer>> submitSync() throws InterruptedException {
+        return TaskExecuteManager.submitSync(executor, syncTaskExecutors);
+    }
+
+    @Benchmark
+    public Map<TaskParam<Integer>, TaskResult<Integer>> submitSyncWithTimeout() throws InterruptedException {
+        return TaskExecuteManager.submitSync(executor, syncTaskExecutors, 10000L);
+    }
+}
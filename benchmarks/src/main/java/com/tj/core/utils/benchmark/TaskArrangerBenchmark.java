@@ -0,0 +1,98 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.concurrent.exception.TaskExecuteException;
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadarrange.ExecutorType;
+import com.tj.core.utils.concurrent.threadarrange.TaskArranger;
+import com.tj.core.utils.concurrent.threadarrange.TaskContainer;
+import com.tj.core.utils.concurrent.threadpool.CommonThreadPoolExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 串行与并行容器的编排开销，两个容器各包含10个空操作任务
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskArrangerBenchmark {
+
+    private static final int CONTAINER_COUNT = 2;
+
+    private static final int TASKS_PER_CONTAINER = 10;
+
+    @Param({"SERIAL", "PARALLEL"})
+    private ExecutorType executorType;
+
+    private ExecutorService executor;
+
+    private List<TaskContainer<Integer, Integer>> taskContainers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        executor = CommonThreadPoolExecutors.newFixedThreadPool("benchmark", 4, 1000);
+
+        taskContainers = new ArrayList<>(CONTAINER_COUNT);
+
+        for (int i = 0; i < CONTAINER_COUNT; i++) {
+
+            List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = new ArrayList<>(TASKS_PER_CONTAINER);
+
+            for (int j = 0; j < TASKS_PER_CONTAINER; j++) {
+
+                syncTaskExecutors.add(new NoopSyncTaskExecutor(i * TASKS_PER_CONTAINER + j));
+            }
+
+            TaskContainer<Integer, Integer> taskContainer = new TaskContainer<>();
+            taskContainer.setSyncTaskExecutors(syncTaskExecutors);
+            taskContainer.setThreadPool(executor);
+            taskContainer.setExecutorType(executorType);
+
+            taskContainers.add(taskContainer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Map<TaskParam<Integer>, TaskResult<Integer>> doTasks() throws TaskExecuteException, InterruptedException {
+
+        TaskArranger taskArranger = TaskArranger.build();
+
+        for (TaskContainer<Integer, Integer> taskContainer : taskContainers) {
+
+            taskArranger.appendTask(taskContainer);
+        }
+
+        return taskArranger.doTasks();
+    }
+}
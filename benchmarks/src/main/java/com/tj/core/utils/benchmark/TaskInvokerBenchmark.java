@@ -0,0 +1,57 @@
+package com.tj.core.utils.benchmark;
+
+import com.tj.core.utils.concurrent.TaskInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存调用器、预先获取的调用器与直接调用的开销对比
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskInvokerBenchmark {
+
+    private final Target target = new Target();
+
+    private final String param = "param";
+
+    private final TaskInvoker.Invoker invoker = TaskInvoker.invoker(Target.class, "handle", String.class);
+
+    @Benchmark
+    public Object direct() {
+        return target.handle(param);
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return TaskInvoker.invoke(target, "handle", param);
+    }
+
+    @Benchmark
+    public Object invoker() {
+        return invoker.invoke(target, param);
+    }
+
+    public static class Target {
+
+        public String handle(String param) {
+            return param;
+        }
+    }
+}
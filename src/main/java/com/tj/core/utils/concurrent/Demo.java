@@ -31,7 +31,7 @@ public class Demo {
     Executor executor = new ThreadPoolExecutor(10, 20, 0, TimeUnit.SECONDS, new LinkedBlockingDeque<>(1000));
 
     public void test() throws TaskExecuteException, InterruptedException {
-        List<SyncTaskExecutor<Object, Object>> taskExecutorList = new ArrayList<>();
+        List<SyncTaskExecutor<?, ?>> taskExecutorList = new ArrayList<>();
 
         taskExecutorList.add(new TaskExecutor1(new TaskParam<>(1, "1")));
         taskExecutorList.add(new TaskExecutor2(new TaskParam<>(2, 2)));
@@ -43,7 +43,7 @@ public class Demo {
         taskContainer.setExecutorType(ExecutorType.PARALLEL);
 
 
-        List<SyncTaskExecutor<Object, Object>> taskExecutorList2 = new ArrayList<>();
+        List<SyncTaskExecutor<?, ?>> taskExecutorList2 = new ArrayList<>();
 
         taskExecutorList2.add(new TaskExecutor1(new TaskParam<>(4, "1")));
         taskExecutorList2.add(new TaskExecutor2(new TaskParam<>(5, 2)));
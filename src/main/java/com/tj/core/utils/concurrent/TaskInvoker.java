@@ -3,17 +3,41 @@ package com.tj.core.utils.concurrent;
 
 import com.tj.core.utils.concurrent.exception.InvokeException;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * 任务调用
+ * <p>
+ * 调用器按(目标类, 方法名称, 参数类型)缓存，首次解析后不再反射查找；公共方法优先通过LambdaMetafactory生成直接调用，
+ * 无法生成时使用MethodHandle调用。参数类型可为方法参数类型的子类或实现类，存在多个可匹配的方法时选择参数类型最具体的方法
  *
  * @author tangjie
  * @date 2022/5/20
  */
 public class TaskInvoker {
 
+    /**
+     * 目标类对应的调用器缓存，随目标类卸载而释放
+     */
+    private static final ClassValue<ConcurrentMap<MethodKey, Invoker>> INVOKERS = new ClassValue<ConcurrentMap<MethodKey, Invoker>>() {
+        @Override
+        protected ConcurrentMap<MethodKey, Invoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * 通过反射调用目标方法
      *
@@ -23,15 +47,239 @@ public class TaskInvoker {
      * @return 执行结果
      */
     public static Object invoke(Object target, String methodName, Object param) {
-        try {
-            Class<?> paramType = param.getClass();
-            Method method = target.getClass().getMethod(methodName, paramType);
-
-            return method.invoke(target, param);
-        } catch (InvocationTargetException e) {
-            throw new InvokeException(String.format("[%s]方法[%s]调用异常", target.getClass().getName(), methodName), e.getTargetException());
-        } catch (Exception e) {
-            throw new InvokeException(String.format("[%s]方法[%s]调用异常", target.getClass().getName(), methodName), e);
+
+        if (target == null || param == null) {
+            throw new InvokeException(String.format("[%s]方法[%s]调用异常", target == null ? null : target.getClass().getName(), methodName),
+                    new IllegalArgumentException("调用目标与请求参数不能为空"));
+        }
+
+        return invoker(target.getClass(), methodName, param.getClass()).invoke(target, param);
+    }
+
+    /**
+     * 获取调用器，可在热点路径中预先获取后重复使用
+     *
+     * @param targetType 目标类
+     * @param methodName 方法名称
+     * @param paramType  请求参数类型
+     * @return 调用器
+     */
+    public static Invoker invoker(Class<?> targetType, String methodName, Class<?> paramType) {
+
+        if (targetType == null || methodName == null || paramType == null) {
+            throw new IllegalArgumentException("调用器参数不能为空");
+        }
+
+        MethodKey methodKey = new MethodKey(methodName, paramType);
+        ConcurrentMap<MethodKey, Invoker> invokers = INVOKERS.get(targetType);
+
+        Invoker invoker = invokers.get(methodKey);
+
+        return invoker != null ? invoker : invokers.computeIfAbsent(methodKey, x -> resolve(targetType, methodName, paramType));
+    }
+
+    /**
+     * 查找参数类型最具体的可匹配公共方法并生成调用器
+     */
+    private static Invoker resolve(Class<?> targetType, String methodName, Class<?> paramType) {
+
+        List<Method> candidates = new ArrayList<>();
+
+        for (Method method : targetType.getMethods()) {
+
+            if (method.getName().equals(methodName) && method.getParameterCount() == 1 && !method.isBridge()
+                    && !Modifier.isStatic(method.getModifiers()) && wrap(method.getParameterTypes()[0]).isAssignableFrom(paramType)) {
+
+                candidates.add(method);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            throw new InvokeException(String.format("[%s]方法[%s]调用异常", targetType.getName(), methodName),
+                    new NoSuchMethodException(String.format("%s.%s(%s)", targetType.getName(), methodName, paramType.getName())));
+        }
+
+        Method mostSpecific = candidates.get(0);
+
+        for (Method candidate : candidates) {
+
+            if (wrap(mostSpecific.getParameterTypes()[0]).isAssignableFrom(wrap(candidate.getParameterTypes()[0]))) {
+
+                mostSpecific = candidate;
+            }
+        }
+
+        // 最具体的方法参数类型需可赋值给其余全部候选方法的参数类型
+        for (Method candidate : candidates) {
+
+            if (!wrap(candidate.getParameterTypes()[0]).isAssignableFrom(wrap(mostSpecific.getParameterTypes()[0]))) {
+                throw new InvokeException(String.format("[%s]方法[%s]调用异常", targetType.getName(), methodName),
+                        new IllegalArgumentException(String.format("参数类型[%s]匹配到多个方法", paramType.getName())));
+            }
+        }
+
+        return new Invoker(targetType, mostSpecific);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 调用器，已绑定目标方法
+     */
+    public static final class Invoker {
+
+        private Invoker(Class<?> targetType, Method method) {
+            this.targetType = targetType;
+            this.method = method;
+            this.invocation = compile(method);
+        }
+
+        private final Class<?> targetType;
+
+        private final Method method;
+
+        private final Invocation invocation;
+
+        /**
+         * 调用目标方法
+         *
+         * @param target 目标对象
+         * @param param  方法请求参数
+         * @return 执行结果，无返回值的方法返回空
+         */
+        public Object invoke(Object target, Object param) {
+            try {
+                return invocation.invoke(target, param);
+            } catch (Throwable e) {
+                throw new InvokeException(String.format("[%s]方法[%s]调用异常", targetType.getName(), method.getName()), e);
+            }
+        }
+
+        /**
+         * 绑定目标对象
+         *
+         * @param target 目标对象
+         * @return 以方法请求参数调用目标方法的函数
+         */
+        public Function<Object, Object> bindTo(Object target) {
+            return param -> invoke(target, param);
+        }
+
+        /**
+         * 获取目标方法
+         *
+         * @return 目标方法
+         */
+        public Method getMethod() {
+            return method;
+        }
+
+        private static Invocation compile(Method method) {
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle methodHandle;
+
+            try {
+
+                if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    method.setAccessible(true);
+                }
+
+                methodHandle = lookup.unreflect(method);
+
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new InvokeException(String.format("[%s]方法[%s]调用异常", method.getDeclaringClass().getName(), method.getName()), e);
+            }
+
+            if (isLambdaCompatible(method)) {
+
+                try {
+
+                    CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(Invocation.class),
+                            MethodType.methodType(Object.class, Object.class, Object.class), methodHandle,
+                            MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass(), method.getParameterTypes()[0]));
+
+                    return (Invocation) callSite.getTarget().invoke();
+
+                } catch (Throwable ignored) {
+                    // 无法生成直接调用时使用MethodHandle调用
+                }
+            }
+
+            MethodHandle handle = methodHandle.asType(MethodType.methodType(Object.class, Object.class, Object.class));
+
+            return (target, param) -> handle.invokeExact(target, param);
+        }
+
+        /**
+         * 生成的调用类定义在当前类的类加载器中，目标方法涉及的类型需对其可见
+         */
+        private static boolean isLambdaCompatible(Method method) {
+
+            Class<?> declaringClass = method.getDeclaringClass();
+            Class<?> paramType = method.getParameterTypes()[0];
+
+            return Modifier.isPublic(declaringClass.getModifiers()) && !paramType.isPrimitive() && method.getReturnType() != void.class
+                    && isVisible(declaringClass) && isVisible(paramType) && isVisible(method.getReturnType());
+        }
+
+        private static boolean isVisible(Class<?> type) {
+
+            if (type.isPrimitive()) {
+                return true;
+            }
+
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+
+            try {
+                return Class.forName(type.getName(), false, TaskInvoker.class.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 目标方法调用
+     */
+    private interface Invocation {
+
+        Object invoke(Object target, Object param) throws Throwable;
+    }
+
+    /**
+     * 调用器缓存键
+     */
+    private static final class MethodKey {
+
+        private final String methodName;
+
+        private final Class<?> paramType;
+
+        MethodKey(String methodName, Class<?> paramType) {
+            this.methodName = methodName;
+            this.paramType = paramType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (!(obj instanceof MethodKey)) {
+                return false;
+            }
+
+            MethodKey other = (MethodKey) obj;
+
+            return methodName.equals(other.methodName) && paramType == other.paramType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(methodName, paramType);
         }
     }
 }
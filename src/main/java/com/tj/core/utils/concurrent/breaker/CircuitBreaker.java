@@ -0,0 +1,324 @@
+package com.tj.core.utils.concurrent.breaker;
+
+import com.tj.core.utils.concurrent.exception.CircuitBreakerOpenException;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 熔断器，按执行器类型共享
+ * <p>
+ * 关闭状态下按滑动窗口统计最近调用的失败率，达到阈值后打开；打开状态下直接拒绝调用，到期后进入半开状态；
+ * 半开状态仅允许有限的探测调用通过，全部成功后关闭，任一失败或探测调用在打开时长内未全部完成时重新打开；
+ * 调用结果仅计入发放其许可的状态，状态切换前放行的调用结束后不再影响当前状态
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class CircuitBreaker {
+
+    /**
+     * 执行器类型对应的熔断器
+     */
+    private static final ConcurrentMap<Class<?>, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+
+        /**
+         * 关闭，调用正常通过
+         */
+        CLOSED,
+
+        /**
+         * 打开，调用被直接拒绝
+         */
+        OPEN,
+
+        /**
+         * 半开，仅允许探测调用通过
+         */
+        HALF_OPEN
+    }
+
+    private final String name;
+
+    private final CircuitBreakerOptions options;
+
+    /**
+     * 环形窗口，记录最近调用是否失败
+     */
+    private final boolean[] outcomes;
+
+    private int windowCount;
+
+    private int windowIndex;
+
+    private int failureCount;
+
+    /**
+     * 当前状态发放的调用许可，每次状态切换创建新的许可
+     */
+    private volatile Permit permit = new Permit(State.CLOSED);
+
+    /**
+     * 进入打开或半开状态的时间，单位毫秒
+     */
+    private volatile long stateSince;
+
+    /**
+     * 半开状态已发放的探测许可数
+     */
+    private int probesIssued;
+
+    /**
+     * 半开状态已成功的探测调用数
+     */
+    private int probesSucceeded;
+
+    CircuitBreaker(String name, CircuitBreakerOptions options) {
+
+        if (options == null || options.getWindowSize() <= 0 || options.getMinimumCalls() <= 0 || options.getFailureRateThreshold() <= 0
+                || options.getFailureRateThreshold() > 1 || options.getOpenDuration() <= 0 || options.getHalfOpenProbes() <= 0) {
+
+            throw new IllegalArgumentException("熔断器参数配置错误");
+        }
+
+        this.name = name;
+        this.options = options;
+        this.outcomes = new boolean[options.getWindowSize()];
+    }
+
+    /**
+     * 获取执行器类型对应的熔断器，配置仅在首次创建时生效
+     *
+     * @param executorType 执行器类型
+     * @param options      熔断器配置
+     * @return 熔断器
+     */
+    public static CircuitBreaker of(Class<?> executorType, CircuitBreakerOptions options) {
+        return BREAKERS.computeIfAbsent(executorType, x -> new CircuitBreaker(x.getName(), options));
+    }
+
+    /**
+     * 获取执行器类型对应的熔断器，首次创建时使用默认配置
+     *
+     * @param executorType 执行器类型
+     * @return 熔断器
+     */
+    public static CircuitBreaker of(Class<?> executorType) {
+        return of(executorType, new CircuitBreakerOptions());
+    }
+
+    /**
+     * 判断调用是否会被直接拒绝，不占用探测许可，用于提交至线程池前的快速判断
+     *
+     * @return 熔断器打开且未到期时返回true
+     */
+    public boolean isCallRejected() {
+        return permit.state == State.OPEN && System.currentTimeMillis() - stateSince < options.getOpenDuration();
+    }
+
+    /**
+     * 尝试获取调用许可，半开状态下占用一次探测许可
+     *
+     * @return 调用许可，不允许调用时返回null
+     */
+    public Permit tryAcquire() {
+
+        Permit current = permit;
+
+        if (current.state == State.CLOSED) {
+
+            return current;
+        }
+
+        synchronized (this) {
+
+            long now = System.currentTimeMillis();
+
+            if (permit.state == State.OPEN) {
+
+                if (now - stateSince < options.getOpenDuration()) {
+
+                    return null;
+                }
+
+                transitionTo(State.HALF_OPEN, now);
+            }
+
+            if (permit.state == State.HALF_OPEN) {
+
+                if (probesIssued < options.getHalfOpenProbes()) {
+
+                    probesIssued++;
+                    return permit;
+                }
+
+                // 探测调用未在打开时长内全部完成，视为失败
+                if (now - stateSince >= options.getOpenDuration()) {
+
+                    transitionTo(State.OPEN, now);
+                }
+
+                return null;
+            }
+
+            return permit;
+        }
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param permit        调用前获取的许可
+     * @param failed        调用是否失败
+     * @param durationNanos 调用耗时，单位纳秒
+     */
+    public void record(Permit permit, boolean failed, long durationNanos) {
+
+        boolean slow = options.getSlowCallThreshold() != null && durationNanos >= options.getSlowCallThreshold() * 1000000L;
+
+        onResult(permit, failed || slow);
+    }
+
+    private synchronized void onResult(Permit issued, boolean failed) {
+
+        // 许可发放后状态已切换，调用结果不再影响当前状态
+        if (issued != permit) {
+
+            return;
+        }
+
+        switch (permit.state) {
+
+            case CLOSED:
+
+                if (windowCount == outcomes.length) {
+
+                    failureCount -= outcomes[windowIndex] ? 1 : 0;
+                } else {
+
+                    windowCount++;
+                }
+
+                outcomes[windowIndex] = failed;
+                failureCount += failed ? 1 : 0;
+                windowIndex = (windowIndex + 1) % outcomes.length;
+
+                if (windowCount >= options.getMinimumCalls() && failureCount >= options.getFailureRateThreshold() * windowCount) {
+
+                    transitionTo(State.OPEN, System.currentTimeMillis());
+                }
+                break;
+
+            case HALF_OPEN:
+
+                if (failed) {
+
+                    transitionTo(State.OPEN, System.currentTimeMillis());
+
+                } else if (++probesSucceeded >= options.getHalfOpenProbes()) {
+
+                    transitionTo(State.CLOSED, System.currentTimeMillis());
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void transitionTo(State newState, long now) {
+
+        permit = new Permit(newState);
+        stateSince = now;
+        probesIssued = 0;
+        probesSucceeded = 0;
+
+        if (newState == State.CLOSED) {
+
+            windowCount = 0;
+            windowIndex = 0;
+            failureCount = 0;
+        }
+    }
+
+    /**
+     * 生成拒绝结果，存在降级函数时以降级数据作为结果，否则为异常结果
+     *
+     * @param param    任务参数
+     * @param fallback 降级函数，可为空
+     * @return 拒绝结果
+     */
+    <K, T> TaskResult<T> reject(TaskParam<K> param, Function<TaskParam<K>, T> fallback) {
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setRejected(true);
+        taskResult.setResponseTime(0L);
+
+        if (fallback == null) {
+
+            taskResult.setException(true);
+            taskResult.setExceptionMsg(new CircuitBreakerOpenException(String.format("熔断器[%s]已打开", name)));
+            return taskResult;
+        }
+
+        try {
+
+            taskResult.setData(fallback.apply(param));
+
+        } catch (Throwable e) {
+
+            taskResult.setException(true);
+            taskResult.setExceptionMsg(e);
+        }
+
+        return taskResult;
+    }
+
+    /**
+     * 手动关闭熔断器并清空统计
+     */
+    public synchronized void reset() {
+        transitionTo(State.CLOSED, System.currentTimeMillis());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return permit.state;
+    }
+
+    /**
+     * 获取关闭状态下窗口内的失败率
+     *
+     * @return 失败率，窗口内没有调用时为0
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : (double) failureCount / windowCount;
+    }
+
+    /**
+     * 调用许可，记录发放时的熔断器状态，同一状态期间发放的许可为同一实例
+     */
+    public static final class Permit {
+
+        private final State state;
+
+        private Permit(State state) {
+            this.state = state;
+        }
+
+        public State getState() {
+            return state;
+        }
+    }
+}
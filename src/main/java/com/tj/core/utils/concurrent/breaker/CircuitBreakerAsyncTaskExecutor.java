@@ -0,0 +1,175 @@
+package com.tj.core.utils.concurrent.breaker;
+
+import com.tj.core.utils.concurrent.exception.CircuitBreakerOpenException;
+import com.tj.core.utils.concurrent.executor.AsyncTaskExecutor;
+import com.tj.core.utils.concurrent.executor.PollingPolicy;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.function.Function;
+
+/**
+ * 异步任务熔断装饰器
+ * <p>
+ * 熔断器按被装饰执行器的指标类型共享，多层装饰时与最内层执行器共享同一熔断器；熔断器拒绝时任务在提交至线程池前直接结束；
+ * 提交或查询异常计为失败，查询到成功结果计为成功，轮询超时不计入统计
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class CircuitBreakerAsyncTaskExecutor<K, T, V> implements AsyncTaskExecutor<K, T, V> {
+
+    /**
+     * @param delegate 被装饰的执行器
+     * @param options  熔断器配置，仅在该执行器类型的熔断器首次创建时生效
+     */
+    public CircuitBreakerAsyncTaskExecutor(AsyncTaskExecutor<K, T, V> delegate, CircuitBreakerOptions options) {
+        this(delegate, options, null);
+    }
+
+    /**
+     * @param delegate 被装饰的执行器
+     * @param options  熔断器配置，仅在该执行器类型的熔断器首次创建时生效
+     * @param fallback 降级函数，被拒绝时以其返回值作为结果数据，为空时返回异常结果
+     */
+    public CircuitBreakerAsyncTaskExecutor(AsyncTaskExecutor<K, T, V> delegate, CircuitBreakerOptions options, Function<TaskParam<K>, T> fallback) {
+
+        if (delegate == null || options == null) {
+
+            throw new IllegalArgumentException("熔断装饰器参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.circuitBreaker = CircuitBreaker.of(delegate.metricsKey(), options);
+        this.fallback = fallback;
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final AsyncTaskExecutor<K, T, V> delegate;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Function<TaskParam<K>, T> fallback;
+
+    /**
+     * 已获取的调用许可，未获取时为空
+     */
+    private volatile CircuitBreaker.Permit permit;
+
+    /**
+     * 是否已记录调用结果，每个任务仅记录一次
+     */
+    private volatile boolean recorded;
+
+    private volatile long startNanos;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public int getExpireTime() {
+        return delegate.getExpireTime();
+    }
+
+    @Override
+    public PollingPolicy getPollingPolicy() {
+        return delegate.getPollingPolicy();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    /**
+     * 获取调用许可，未获取到许可时直接返回拒绝结果
+     */
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+
+        if (!acquire()) {
+
+            return circuitBreaker.reject(delegate.getParam(), fallback);
+        }
+
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<V> submit(TaskParam<K> param) throws Throwable {
+
+        if (permit == null && !acquire()) {
+
+            throw new CircuitBreakerOpenException(String.format("熔断器[%s]已打开", circuitBreaker.getName()));
+        }
+
+        try {
+
+            return delegate.submit(param);
+
+        } catch (Throwable e) {
+
+            record(true);
+            throw e;
+        }
+    }
+
+    @Override
+    public TaskResult<T> query(V posParam) throws Throwable {
+
+        try {
+
+            return delegate.query(posParam);
+
+        } catch (Throwable e) {
+
+            record(true);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isExecuteSuccess(T result) {
+
+        boolean success = delegate.isExecuteSuccess(result);
+
+        if (success) {
+
+            record(false);
+        }
+
+        return success;
+    }
+
+    private boolean acquire() {
+
+        CircuitBreaker.Permit acquiredPermit = circuitBreaker.tryAcquire();
+
+        if (acquiredPermit == null) {
+
+            return false;
+        }
+
+        startNanos = System.nanoTime();
+        permit = acquiredPermit;
+
+        return true;
+    }
+
+    private void record(boolean failed) {
+
+        if (!recorded) {
+
+            recorded = true;
+            circuitBreaker.record(permit, failed, System.nanoTime() - startNanos);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,43 @@
+package com.tj.core.utils.concurrent.breaker;
+
+import lombok.Data;
+
+/**
+ * 熔断器配置
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Data
+public class CircuitBreakerOptions {
+
+    /**
+     * 滑动窗口大小，按最近的调用次数统计失败率
+     */
+    private int windowSize = 100;
+
+    /**
+     * 计算失败率所需的最少调用次数
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * 打开熔断器的失败率阈值，取值(0, 1]
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * 慢调用阈值，单位毫秒，耗时达到阈值的调用计为失败，为空表示不统计慢调用
+     */
+    private Long slowCallThreshold;
+
+    /**
+     * 熔断器打开的时长，单位毫秒，到期后进入半开状态
+     */
+    private long openDuration = 30000;
+
+    /**
+     * 半开状态允许通过的探测调用次数，全部成功后关闭熔断器
+     */
+    private int halfOpenProbes = 5;
+}
@@ -0,0 +1,125 @@
+package com.tj.core.utils.concurrent.breaker;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 熔断装饰器
+ * <p>
+ * 熔断器按被装饰执行器的指标类型共享，多层装饰时与最内层执行器共享同一熔断器；熔断器打开时任务在提交至线程池前直接结束，返回拒绝结果或降级结果；
+ * 执行异常或返回异常结果的调用计为失败
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class CircuitBreakerSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
+
+    /**
+     * @param delegate 被装饰的执行器
+     * @param options  熔断器配置，仅在该执行器类型的熔断器首次创建时生效
+     */
+    public CircuitBreakerSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, CircuitBreakerOptions options) {
+        this(delegate, options, null);
+    }
+
+    /**
+     * @param delegate 被装饰的执行器
+     * @param options  熔断器配置，仅在该执行器类型的熔断器首次创建时生效
+     * @param fallback 降级函数，被拒绝时以其返回值作为结果数据，为空时返回异常结果
+     */
+    public CircuitBreakerSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, CircuitBreakerOptions options, Function<TaskParam<K>, T> fallback) {
+
+        if (delegate == null || options == null) {
+
+            throw new IllegalArgumentException("熔断装饰器参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.circuitBreaker = CircuitBreaker.of(delegate.metricsKey(), options);
+        this.fallback = fallback;
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final SyncTaskExecutor<K, T> delegate;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Function<TaskParam<K>, T> fallback;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public Set<Integer> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return delegate.isIdempotent();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    @Override
+    public Object batchKey() {
+        return delegate.batchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        delegate.expectBatchSize(batchSize);
+    }
+
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+
+        if (circuitBreaker.isCallRejected()) {
+
+            return circuitBreaker.reject(delegate.getParam(), fallback);
+        }
+
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+
+        if (permit == null) {
+
+            return circuitBreaker.reject(param, fallback);
+        }
+
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            TaskResult<T> taskResult = delegate.execute(param);
+            failed = taskResult == null || taskResult.isException();
+
+            return taskResult;
+
+        } finally {
+
+            circuitBreaker.record(permit, failed, System.nanoTime() - startNanos);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
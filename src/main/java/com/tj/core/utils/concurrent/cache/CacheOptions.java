@@ -0,0 +1,30 @@
+package com.tj.core.utils.concurrent.cache;
+
+import lombok.Data;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * 缓存配置
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+@Data
+public class CacheOptions {
+
+    /**
+     * 最大权重，默认权重计算方式下即最大条目数
+     */
+    private long maximumWeight = 10000;
+
+    /**
+     * 写入后的过期时间，单位毫秒，为空表示不过期
+     */
+    private Long expireAfterWrite;
+
+    /**
+     * 缓存值的权重计算方式，默认每个缓存值权重为1
+     */
+    private ToLongFunction<Object> weigher = x -> 1;
+}
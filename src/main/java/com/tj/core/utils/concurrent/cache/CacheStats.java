@@ -0,0 +1,59 @@
+package com.tj.core.utils.concurrent.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 缓存统计快照
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheStats {
+
+    /**
+     * 命中次数
+     */
+    private final long hitCount;
+
+    /**
+     * 未命中次数，包含已过期的缓存
+     */
+    private final long missCount;
+
+    /**
+     * 因容量不足被淘汰的次数
+     */
+    private final long evictionCount;
+
+    /**
+     * 因过期被移除的次数
+     */
+    private final long expirationCount;
+
+    /**
+     * 当前条目数
+     */
+    private final long size;
+
+    /**
+     * 当前总权重
+     */
+    private final long weight;
+
+    /**
+     * 命中率
+     *
+     * @return 命中率，无请求时返回1
+     */
+    public double hitRate() {
+
+        long requestCount = hitCount + missCount;
+
+        return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+    }
+}
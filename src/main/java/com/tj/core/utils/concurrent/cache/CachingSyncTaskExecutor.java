@@ -0,0 +1,117 @@
+package com.tj.core.utils.concurrent.cache;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 结果缓存装饰器
+ * <p>
+ * 缓存键由被装饰执行器的指标类型与键生成函数的结果组成，被装饰的执行器本身为装饰器时按最内层执行器区分，同一缓存实例可被多种执行器共享；
+ * 仅缓存执行成功且数据不为空的结果，命中时不调用被装饰的执行器
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class CachingSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
+
+    /**
+     * 使用任务具体参数作为缓存键
+     *
+     * @param delegate  被装饰的执行器
+     * @param taskCache 缓存
+     */
+    public CachingSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, TaskCache<T> taskCache) {
+        this(delegate, taskCache, TaskParam::getParam);
+    }
+
+    /**
+     * @param delegate    被装饰的执行器
+     * @param taskCache   缓存
+     * @param keyFunction 缓存键生成函数，返回值需正确实现equals和hashCode
+     */
+    public CachingSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, TaskCache<T> taskCache, Function<TaskParam<K>, Object> keyFunction) {
+
+        if (delegate == null || taskCache == null || keyFunction == null) {
+
+            throw new IllegalArgumentException("缓存装饰器参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.taskCache = taskCache;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final SyncTaskExecutor<K, T> delegate;
+
+    private final TaskCache<T> taskCache;
+
+    private final Function<TaskParam<K>, Object> keyFunction;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public Set<Integer> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return delegate.isIdempotent();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    @Override
+    public Object batchKey() {
+        return delegate.batchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        delegate.expectBatchSize(batchSize);
+    }
+
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+
+        Object key = Arrays.asList(delegate.metricsKey(), keyFunction.apply(param));
+
+        T data = taskCache.get(key);
+
+        if (data != null) {
+
+            TaskResult<T> taskResult = new TaskResult<>();
+            taskResult.setData(data);
+
+            return taskResult;
+        }
+
+        TaskResult<T> taskResult = delegate.execute(param);
+
+        if (taskResult != null && !taskResult.isException() && !taskResult.isTimeout() && taskResult.getData() != null) {
+
+            taskCache.put(key, taskResult.getData());
+        }
+
+        return taskResult;
+    }
+}
@@ -0,0 +1,123 @@
+package com.tj.core.utils.concurrent.cache;
+
+/**
+ * 访问频率估算器（Count-Min Sketch），计数上限为15，样本数达到阈值时全部计数减半以淘汰历史热度
+ * <p>
+ * 非线程安全，由调用方加锁
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+class FrequencySketch {
+
+    /**
+     * 哈希函数个数
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * 单个计数上限
+     */
+    private static final int MAX_COUNT = 15;
+
+    private static final int[] SEEDS = {0x97cb3127, 0xd9a6a3b7, 0x3d4d51cb, 0x5f1a3c8d};
+
+    private final byte[] table;
+
+    private final int mask;
+
+    /**
+     * 计数减半的样本阈值
+     */
+    private final int sampleSize;
+
+    /**
+     * 当前样本数
+     */
+    private int size;
+
+    /**
+     * @param expectedSize 预计缓存条目数
+     */
+    FrequencySketch(long expectedSize) {
+
+        int width = Integer.highestOneBit((int) Math.min(Math.max(expectedSize, 16), 1 << 24) - 1) << 1;
+
+        this.table = new byte[DEPTH * width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * 估算访问频率
+     *
+     * @param key 缓存键
+     * @return 访问频率，取值[0, 15]
+     */
+    int frequency(Object key) {
+
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            frequency = Math.min(frequency, table[indexOf(hash, i)]);
+        }
+
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key 缓存键
+     */
+    void increment(Object key) {
+
+        int hash = spread(key.hashCode());
+        boolean added = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            int index = indexOf(hash, i);
+
+            if (table[index] < MAX_COUNT) {
+
+                table[index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++size >= sampleSize) {
+
+            reset();
+        }
+    }
+
+    /**
+     * 全部计数减半
+     */
+    private void reset() {
+
+        for (int i = 0; i < table.length; i++) {
+
+            table[i] = (byte) (table[i] >>> 1);
+        }
+
+        size >>>= 1;
+    }
+
+    private int indexOf(int hash, int row) {
+
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private static int spread(int hash) {
+
+        int h = hash * 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+}
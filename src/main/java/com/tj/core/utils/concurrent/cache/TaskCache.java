@@ -0,0 +1,501 @@
+package com.tj.core.utils.concurrent.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * 任务结果缓存，支持写入过期与按权重淘汰
+ * <p>
+ * 淘汰策略为W-TinyLFU：新写入的条目先进入占总权重1%的窗口区，窗口区溢出的条目进入主区试用段，
+ * 主区容量不足时按访问频率比较试用段的新条目与最久未访问的条目，频率更高者保留，
+ * 试用段再次被访问的条目晋升至保护段。一次性的大量扫描访问无法挤出高频条目
+ * <p>
+ * 读操作无锁，读操作对淘汰顺序与频率的更新在锁竞争时直接丢弃
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class TaskCache<V> {
+
+    public TaskCache(CacheOptions cacheOptions) {
+
+        if (cacheOptions == null || cacheOptions.getMaximumWeight() <= 0 || cacheOptions.getWeigher() == null
+                || (cacheOptions.getExpireAfterWrite() != null && cacheOptions.getExpireAfterWrite() <= 0)) {
+
+            throw new IllegalArgumentException("缓存参数配置错误");
+        }
+
+        this.maximumWeight = cacheOptions.getMaximumWeight();
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+        this.expireAfterWrite = cacheOptions.getExpireAfterWrite();
+        this.weigher = cacheOptions.getWeigher();
+        this.sketch = new FrequencySketch(maximumWeight);
+    }
+
+    private final ConcurrentMap<Object, Node<V>> data = new ConcurrentHashMap<>();
+
+    /**
+     * 淘汰顺序与频率估算的锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long maximumWeight;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private final Long expireAfterWrite;
+
+    private final ToLongFunction<Object> weigher;
+
+    private final FrequencySketch sketch;
+
+    /**
+     * 窗口区，最久未访问的条目在队头
+     */
+    private final AccessQueue<V> window = new AccessQueue<>();
+
+    /**
+     * 主区试用段
+     */
+    private final AccessQueue<V> probation = new AccessQueue<>();
+
+    /**
+     * 主区保护段
+     */
+    private final AccessQueue<V> protect = new AccessQueue<>();
+
+    private long windowWeight;
+
+    private long protectedWeight;
+
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * 查询缓存
+     *
+     * @param key 缓存键
+     * @return 缓存值，不存在或已过期时返回空
+     */
+    public V get(Object key) {
+
+        Node<V> node = data.get(key);
+
+        if (node == null) {
+
+            missCount.increment();
+            recordRead(key, null);
+            return null;
+        }
+
+        if (isExpired(node, System.currentTimeMillis())) {
+
+            missCount.increment();
+            expire(node);
+            return null;
+        }
+
+        hitCount.increment();
+        recordRead(key, node);
+
+        return node.value;
+    }
+
+    /**
+     * 写入缓存，权重超过最大权重的值不会被缓存
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     */
+    public void put(Object key, V value) {
+
+        if (key == null || value == null) {
+
+            throw new IllegalArgumentException("缓存键和值不能为空");
+        }
+
+        long weight = weigher.applyAsLong(value);
+
+        if (weight < 0 || weight > maximumWeight) {
+
+            return;
+        }
+
+        Node<V> node = new Node<>(key, value, weight, System.currentTimeMillis());
+
+        lock.lock();
+
+        try {
+
+            Node<V> old = data.put(key, node);
+
+            if (old != null) {
+
+                unlink(old);
+            }
+
+            sketch.increment(key);
+
+            node.queue = window;
+            window.addLast(node);
+            windowWeight += weight;
+            totalWeight += weight;
+
+            evict();
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除缓存
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(Object key) {
+
+        lock.lock();
+
+        try {
+
+            Node<V> node = data.remove(key);
+
+            if (node != null) {
+
+                unlink(node);
+            }
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清理全部已过期的缓存
+     */
+    public void cleanUp() {
+
+        long now = System.currentTimeMillis();
+        List<Node<V>> expired = new ArrayList<>();
+
+        for (Node<V> node : data.values()) {
+
+            if (isExpired(node, now)) {
+
+                expired.add(node);
+            }
+        }
+
+        for (Node<V> node : expired) {
+
+            expire(node);
+        }
+    }
+
+    /**
+     * 获取缓存统计快照
+     *
+     * @return 缓存统计
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), expirationCount.sum(), data.size(), totalWeight);
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return expireAfterWrite != null && now - node.writeTime >= expireAfterWrite;
+    }
+
+    /**
+     * 移除已过期的缓存，缓存已被替换时不处理
+     */
+    private void expire(Node<V> node) {
+
+        lock.lock();
+
+        try {
+
+            if (data.remove(node.key, node)) {
+
+                unlink(node);
+                expirationCount.increment();
+            }
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录读操作，锁竞争时丢弃本次记录
+     */
+    private void recordRead(Object key, Node<V> node) {
+
+        if (!lock.tryLock()) {
+
+            return;
+        }
+
+        try {
+
+            sketch.increment(key);
+
+            // 条目可能已被淘汰或替换
+            if (node == null || node.queue == null) {
+
+                return;
+            }
+
+            if (node.queue == window) {
+
+                window.moveToLast(node);
+
+            } else if (node.queue == probation) {
+                // 试用段再次访问，晋升至保护段
+                probation.remove(node);
+                node.queue = protect;
+                protect.addLast(node);
+                protectedWeight += node.weight;
+
+                demoteProtected();
+
+            } else {
+
+                protect.moveToLast(node);
+            }
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 保护段超出容量时，将最久未访问的条目降级至试用段
+     */
+    private void demoteProtected() {
+
+        while (protectedWeight > protectedMaximum) {
+
+            Node<V> demoted = protect.pollFirst();
+            protectedWeight -= demoted.weight;
+
+            demoted.queue = probation;
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * 窗口区溢出的条目移至试用段，总权重超出时按访问频率淘汰
+     */
+    private void evict() {
+
+        Node<V> candidate = null;
+
+        while (windowWeight > windowMaximum) {
+
+            Node<V> node = window.pollFirst();
+            windowWeight -= node.weight;
+
+            node.queue = probation;
+            probation.addLast(node);
+
+            if (candidate == null) {
+
+                candidate = node;
+            }
+        }
+
+        while (totalWeight > maximumWeight) {
+
+            Node<V> victim = probation.peekFirst();
+
+            if (victim == null) {
+
+                victim = protect.peekFirst() != null ? protect.peekFirst() : window.peekFirst();
+                remove(victim);
+                continue;
+            }
+
+            // 仅剩窗口区溢出的条目时直接淘汰最久未访问者
+            if (candidate == null || candidate.queue != probation || candidate == victim) {
+
+                candidate = candidate == victim ? candidate.next(probation) : candidate;
+                remove(victim);
+                continue;
+            }
+
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+
+                remove(victim);
+            } else {
+
+                Node<V> next = candidate.next(probation);
+                remove(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    /**
+     * 因容量不足淘汰条目
+     */
+    private void remove(Node<V> node) {
+
+        data.remove(node.key, node);
+        unlink(node);
+        evictionCount.increment();
+    }
+
+    /**
+     * 将条目从所在队列中移除并扣减权重
+     */
+    private void unlink(Node<V> node) {
+
+        if (node.queue == null) {
+
+            return;
+        }
+
+        if (node.queue == window) {
+
+            windowWeight -= node.weight;
+        } else if (node.queue == protect) {
+
+            protectedWeight -= node.weight;
+        }
+
+        totalWeight -= node.weight;
+
+        node.queue.remove(node);
+        node.queue = null;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static class Node<V> {
+
+        private final Object key;
+
+        private final V value;
+
+        private final long weight;
+
+        private final long writeTime;
+
+        /**
+         * 所在队列，已移除时为空
+         */
+        private AccessQueue<V> queue;
+
+        private Node<V> prev;
+
+        private Node<V> next;
+
+        Node(Object key, V value, long weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+
+        /**
+         * 获取同一队列中的下一个条目
+         */
+        Node<V> next(AccessQueue<V> accessQueue) {
+            return queue == accessQueue ? next : null;
+        }
+    }
+
+    /**
+     * 按访问顺序排列的双向链表，最久未访问的条目在队头
+     */
+    private static class AccessQueue<V> {
+
+        private Node<V> first;
+
+        private Node<V> last;
+
+        Node<V> peekFirst() {
+            return first;
+        }
+
+        Node<V> pollFirst() {
+
+            Node<V> node = first;
+
+            if (node != null) {
+
+                remove(node);
+            }
+
+            return node;
+        }
+
+        void addLast(Node<V> node) {
+
+            node.prev = last;
+            node.next = null;
+
+            if (last == null) {
+
+                first = node;
+            } else {
+
+                last.next = node;
+            }
+
+            last = node;
+        }
+
+        void moveToLast(Node<V> node) {
+
+            if (node != last) {
+
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<V> node) {
+
+            if (node.prev == null) {
+
+                first = node.next;
+            } else {
+
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+
+                last = node.prev;
+            } else {
+
+                node.next.prev = node.prev;
+            }
+
+            node.prev = null;
+            node.next = null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tj.core.utils.concurrent.coalesce;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 相同任务合并装饰器
+ * <p>
+ * 合并键由被装饰执行器的指标类型与键生成函数的结果组成，被装饰的执行器本身为装饰器时按最内层执行器区分，相同合并键的任务在执行期间只会执行一次
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class CoalescingSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
+
+    /**
+     * 使用任务具体参数作为合并键
+     *
+     * @param delegate      被装饰的执行器
+     * @param taskCoalescer 合并执行器，需在多次请求间共享
+     */
+    public CoalescingSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, TaskCoalescer taskCoalescer) {
+        this(delegate, taskCoalescer, TaskParam::getParam);
+    }
+
+    /**
+     * @param delegate      被装饰的执行器
+     * @param taskCoalescer 合并执行器，需在多次请求间共享
+     * @param keyFunction   合并键生成函数，返回值需正确实现equals和hashCode
+     */
+    public CoalescingSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, TaskCoalescer taskCoalescer, Function<TaskParam<K>, Object> keyFunction) {
+
+        if (delegate == null || taskCoalescer == null || keyFunction == null) {
+
+            throw new IllegalArgumentException("合并装饰器参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.taskCoalescer = taskCoalescer;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final SyncTaskExecutor<K, T> delegate;
+
+    private final TaskCoalescer taskCoalescer;
+
+    private final Function<TaskParam<K>, Object> keyFunction;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public Set<Integer> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return delegate.isIdempotent();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    @Override
+    public Object batchKey() {
+        return delegate.batchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        delegate.expectBatchSize(batchSize);
+    }
+
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+        return taskCoalescer.execute(Arrays.asList(delegate.metricsKey(), keyFunction.apply(param)), delegate, param);
+    }
+}
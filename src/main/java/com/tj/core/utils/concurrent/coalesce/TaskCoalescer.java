@@ -0,0 +1,118 @@
+package com.tj.core.utils.concurrent.coalesce;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 相同任务合并执行器
+ * <p>
+ * 相同键的任务执行期间，后到的调用方不再重复执行，而是等待首个调用方的执行结果；
+ * 任务执行完成后立即移除，不缓存结果
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class TaskCoalescer {
+
+    /**
+     * 执行中的任务
+     */
+    private final ConcurrentMap<Object, CompletableFuture<TaskResult<?>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行任务，相同键的任务执行中时等待其结果
+     *
+     * @param key              合并键
+     * @param syncTaskExecutor 同步任务执行器
+     * @param param            任务参数
+     * @return 执行结果，复用的结果为独立的TaskResult实例
+     * @throws Throwable 异常信息
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> TaskResult<T> execute(Object key, SyncTaskExecutor<K, T> syncTaskExecutor, TaskParam<K> param) throws Throwable {
+
+        long startTime = System.currentTimeMillis();
+
+        while (true) {
+
+            CompletableFuture<TaskResult<?>> future = new CompletableFuture<>();
+            CompletableFuture<TaskResult<?>> existing = inFlight.putIfAbsent(key, future);
+
+            if (existing == null) {
+
+                return lead(key, future, syncTaskExecutor, param);
+            }
+
+            try {
+
+                return copyOf((TaskResult<T>) existing.get(), startTime);
+
+            } catch (ExecutionException e) {
+                // 首个调用方被中断时由当前调用方重新执行
+                if (e.getCause() instanceof InterruptedException && !Thread.currentThread().isInterrupted()) {
+
+                    continue;
+                }
+
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 获取执行中的任务数
+     *
+     * @return 执行中的任务数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 作为首个调用方执行任务
+     */
+    private <K, T> TaskResult<T> lead(Object key, CompletableFuture<TaskResult<?>> future, SyncTaskExecutor<K, T> syncTaskExecutor, TaskParam<K> param) throws Throwable {
+
+        try {
+
+            TaskResult<T> taskResult = syncTaskExecutor.execute(param);
+            future.complete(taskResult);
+
+            return taskResult;
+
+        } catch (Throwable e) {
+
+            future.completeExceptionally(e);
+            throw e;
+
+        } finally {
+
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 复制共享结果的数据与状态，响应时间为当前调用方的等待时间
+     */
+    private static <T> TaskResult<T> copyOf(TaskResult<T> shared, long startTime) {
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setData(shared.getData());
+        taskResult.setException(shared.isException());
+        taskResult.setExceptionMsg(shared.getExceptionMsg());
+        taskResult.setTimeout(shared.isTimeout());
+        taskResult.setPollingExpired(shared.isPollingExpired());
+        taskResult.setCancelled(shared.isCancelled());
+        taskResult.setRejected(shared.isRejected());
+        taskResult.setCoalesced(true);
+        taskResult.setResponseTime(System.currentTimeMillis() - startTime);
+
+        return taskResult;
+    }
+}
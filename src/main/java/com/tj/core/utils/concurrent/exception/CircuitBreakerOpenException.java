@@ -0,0 +1,14 @@
+package com.tj.core.utils.concurrent.exception;
+
+/**
+ * 熔断器打开时任务被拒绝执行的异常
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tj.core.utils.concurrent.exception;
+
+/**
+ * 任务因过载被拒绝执行的异常，如超出并发限制或线程池已满
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskRejectedException extends RuntimeException {
+
+    public TaskRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -3,20 +3,36 @@ package com.tj.core.utils.concurrent.executor;
 import com.tj.core.utils.concurrent.param.TaskParam;
 import com.tj.core.utils.concurrent.param.TaskResult;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * 抽象同步任务执行器
  *
  * @author tangjie
  * @date 2022/5/20
  */
-public abstract class AbstractSyncTaskExecutor<K, T> implements SyncTaskExecutor {
+public abstract class AbstractSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
 
     public AbstractSyncTaskExecutor(TaskParam<K> param) {
         this.param = param;
+        this.dependencies = Collections.emptySet();
+    }
+
+    public AbstractSyncTaskExecutor(TaskParam<K> param, Integer... dependencies) {
+        this.param = param;
+        this.dependencies = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(dependencies)));
     }
 
     private final TaskParam<K> param;
 
+    /**
+     * 依赖的任务Id
+     */
+    private final Set<Integer> dependencies;
+
     /**
      * 获取执行参数
      *
@@ -27,6 +43,16 @@ public abstract class AbstractSyncTaskExecutor<K, T> implements SyncTaskExecutor
         return param;
     }
 
+    /**
+     * 获取当前任务依赖的任务Id
+     *
+     * @return 依赖的任务Id集合
+     */
+    @Override
+    public Set<Integer> getDependencies() {
+        return dependencies;
+    }
+
     /**
      * 执行任务
      *
@@ -34,10 +60,10 @@ public abstract class AbstractSyncTaskExecutor<K, T> implements SyncTaskExecutor
      * @return 执行结果
      */
     @Override
-    public TaskResult execute(TaskParam param) throws Throwable {
-        T data = invoke((K) param.getParam());
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+        T data = invoke(param.getParam());
         TaskResult<T> taskResult = new TaskResult<>();
-        taskResult.setData((T) data);
+        taskResult.setData(data);
         return taskResult;
     }
 
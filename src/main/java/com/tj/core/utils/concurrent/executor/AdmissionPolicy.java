@@ -0,0 +1,32 @@
+package com.tj.core.utils.concurrent.executor;
+
+/**
+ * 线程池拒绝任务时的准入策略，被拒绝的任务以拒绝结果返回，不向调用方抛出异常
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public enum AdmissionPolicy {
+
+    /**
+     * 被拒绝的任务返回拒绝结果，其余任务继续提交
+     */
+    REJECT,
+
+    /**
+     * 等待线程池接收任务，超过准入等待时间或任务超时后返回拒绝结果；
+     * 异步提交时由共享定时器重试提交，不阻塞调用线程
+     */
+    BLOCK,
+
+    /**
+     * 被拒绝的任务立即由调用线程执行，仅支持阻塞提交，异步提交时抛出参数异常
+     */
+    CALLER_RUNS,
+
+    /**
+     * 整批准入，提交前线程池剩余容量不足时全部任务返回拒绝结果；
+     * 提交过程中仍被拒绝时取消已提交的任务，未完成的任务全部返回拒绝结果
+     */
+    REJECT_ALL
+}
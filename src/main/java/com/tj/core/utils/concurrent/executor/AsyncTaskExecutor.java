@@ -50,4 +50,31 @@ public interface AsyncTaskExecutor<K, T, V> {
      * @return 任务参数
      */
     TaskParam<K> getParam();
+
+    /**
+     * 获取轮询策略
+     *
+     * @return 轮询策略，默认每秒轮询一次
+     */
+    default PollingPolicy getPollingPolicy() {
+        return PollingPolicy.DEFAULT;
+    }
+
+    /**
+     * 提交至线程池前判断任务是否直接结束，如熔断器打开时直接返回拒绝结果
+     *
+     * @return 直接结束时的任务结果，为空表示正常提交执行
+     */
+    default TaskResult<T> tryShortCircuit() {
+        return null;
+    }
+
+    /**
+     * 获取记录执行指标时的执行器类型，装饰器返回被装饰执行器的类型，使同一任务的指标不因装饰而分散
+     *
+     * @return 指标的执行器类型，默认为当前执行器类型
+     */
+    default Class<?> metricsKey() {
+        return getClass();
+    }
 }
@@ -0,0 +1,260 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.JsonUtil;
+import com.tj.core.utils.concurrent.metrics.TaskMetrics;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步任务轮询器
+ * <p>
+ * 轮询间隔由共享定时器调度，仅在提交与查询时占用线程池线程，等待期间不占用任何线程
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+@Slf4j
+class AsyncTaskPoller<K, T, V> {
+
+    AsyncTaskPoller(Executor executor, AsyncTaskExecutor<K, T, V> asyncTaskExecutor) {
+        this.executor = executor;
+        this.asyncTaskExecutor = asyncTaskExecutor;
+        this.pollingPolicy = asyncTaskExecutor.getPollingPolicy();
+    }
+
+    private final Executor executor;
+
+    private final AsyncTaskExecutor<K, T, V> asyncTaskExecutor;
+
+    private final PollingPolicy pollingPolicy;
+
+    /**
+     * 轮询结果
+     */
+    private final CompletableFuture<TaskResult<T>> future = new CompletableFuture<>();
+
+    /**
+     * 开始时间，单位毫秒
+     */
+    private long startTime;
+
+    /**
+     * 开始时间，单位纳秒
+     */
+    private long startNanos;
+
+    /**
+     * 轮询截止时间，单位毫秒
+     */
+    private long deadline;
+
+    /**
+     * 轮询标识
+     */
+    private V posParam;
+
+    /**
+     * 已轮询次数
+     */
+    private int attempt;
+
+    /**
+     * 最近一次查询结果
+     */
+    private TaskResult<T> lastRet;
+
+    /**
+     * 提交异步任务并开始轮询
+     *
+     * @return 轮询完成后结束的执行结果
+     */
+    CompletableFuture<TaskResult<T>> start() {
+
+        startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        deadline = startTime + TimeUnit.SECONDS.toMillis(asyncTaskExecutor.getExpireTime());
+
+        // 直接结束的任务不提交至线程池
+        TaskResult<T> shortCircuitResult = asyncTaskExecutor.tryShortCircuit();
+
+        if (shortCircuitResult != null) {
+
+            future.complete(shortCircuitResult);
+            return future;
+        }
+
+        dispatch(this::submit);
+
+        return future;
+    }
+
+    /**
+     * 提交异步任务
+     */
+    private void submit() {
+
+        try {
+
+            TaskResult<V> ret = asyncTaskExecutor.submit(asyncTaskExecutor.getParam());
+            posParam = ret.getData();
+
+            scheduleQuery();
+
+        } catch (Throwable e) {
+
+            fail(e);
+        }
+    }
+
+    /**
+     * 查询异步任务结果，此处查询结果发生异常则终止查询
+     */
+    private void query() {
+
+        TaskResult<T> taskResult;
+
+        try {
+
+            taskResult = asyncTaskExecutor.query(posParam);
+
+        } catch (Throwable e) {
+
+            fail(e);
+            return;
+        }
+
+        onQueried(taskResult);
+    }
+
+    /**
+     * 处理查询结果，未成功时调度下一次查询
+     *
+     * @param taskResult 查询结果
+     */
+    void onQueried(TaskResult<T> taskResult) {
+
+        try {
+
+            lastRet = taskResult;
+
+            if (asyncTaskExecutor.isExecuteSuccess(lastRet.getData())) {
+
+                finish(false);
+            } else {
+
+                scheduleQuery();
+            }
+
+        } catch (Throwable e) {
+
+            fail(e);
+        }
+    }
+
+    /**
+     * 按轮询策略调度下一次查询，最后一次查询不晚于截止时间
+     */
+    private void scheduleQuery() {
+
+        long remaining = deadline - System.currentTimeMillis();
+
+        if (remaining <= 0) {
+
+            finish(true);
+            return;
+        }
+
+        long interval = Math.min(pollingPolicy.nextInterval(attempt++), remaining);
+
+        if (asyncTaskExecutor instanceof BatchAsyncTaskExecutor) {
+
+            SharedTimer.schedule(() -> BatchQueryDispatcher.enqueue(this, (BatchAsyncTaskExecutor<K, T, V>) asyncTaskExecutor), interval, TimeUnit.MILLISECONDS);
+        } else {
+
+            SharedTimer.schedule(() -> dispatch(this::query), interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 将提交或查询操作转交至线程池执行，定时触发的查询不会在定时线程中执行
+     *
+     * @param runnable 提交或查询操作
+     */
+    private void dispatch(Runnable runnable) {
+
+        try {
+
+            SharedTimer.handOff(executor, runnable);
+
+        } catch (RuntimeException e) {
+
+            fail(e);
+        }
+    }
+
+    /**
+     * 结束轮询
+     *
+     * @param pollingExpired 轮询是否超时
+     */
+    private void finish(boolean pollingExpired) {
+        // 提交耗时超过截止时间时未进行过查询
+        if (lastRet == null) {
+
+            lastRet = new TaskResult<>();
+        }
+
+        lastRet.setPollingExpired(pollingExpired);
+        lastRet.setResponseTime(System.currentTimeMillis() - startTime);
+
+        if (future.complete(lastRet)) {
+
+            if (pollingExpired) {
+
+                TaskMetrics.recordTimeout(asyncTaskExecutor.metricsKey(), System.nanoTime() - startNanos);
+            } else {
+
+                TaskMetrics.recordExecution(asyncTaskExecutor.metricsKey(), 0, System.nanoTime() - startNanos, false);
+            }
+        }
+    }
+
+    /**
+     * 以异常结果结束轮询
+     *
+     * @param e 异常信息
+     */
+    void fail(Throwable e) {
+
+        TaskParam<K> taskParam = asyncTaskExecutor.getParam();
+        log.error("异步任务执行异常,执行器名称:[{}],任务参数信息:[{}]", asyncTaskExecutor.getClass().getName(), JsonUtil.toJson(taskParam), e);
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setException(true);
+        taskResult.setExceptionMsg(e);
+        taskResult.setResponseTime(System.currentTimeMillis() - startTime);
+
+        if (future.complete(taskResult)) {
+
+            TaskMetrics.recordExecution(asyncTaskExecutor.metricsKey(), 0, System.nanoTime() - startNanos, true);
+        }
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    AsyncTaskExecutor<K, T, V> getAsyncTaskExecutor() {
+        return asyncTaskExecutor;
+    }
+
+    V getPosParam() {
+        return posParam;
+    }
+}
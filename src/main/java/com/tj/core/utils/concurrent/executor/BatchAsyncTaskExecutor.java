@@ -0,0 +1,58 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 支持批量查询的异步任务执行器
+ * <p>
+ * 同一执行器类型在同一轮询窗口内到期的轮询标识会合并为一次{@link #queryAll(Collection)}调用，
+ * 合并查询由其中任一执行器实例发起，queryAll只能依赖入参中的轮询标识，不能依赖实例状态
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public interface BatchAsyncTaskExecutor<K, T, V> extends AsyncTaskExecutor<K, T, V> {
+
+    /**
+     * 批量查询异步任务执行结果，需为无状态实现，轮询标识可能来自同一类型的其他执行器实例
+     *
+     * @param posParams 轮询标识
+     * @return 轮询标识与执行结果的映射，需包含全部轮询标识
+     * @throws Throwable 异常信息
+     */
+    Map<V, TaskResult<T>> queryAll(Collection<V> posParams) throws Throwable;
+
+    /**
+     * 查询单个异步任务执行结果
+     *
+     * @param posParam 轮询标识
+     * @return 执行结果
+     * @throws Throwable 异常信息
+     */
+    @Override
+    default TaskResult<T> query(V posParam) throws Throwable {
+        return queryAll(Collections.singletonList(posParam)).get(posParam);
+    }
+
+    /**
+     * 获取批量查询的合并窗口，窗口内到期的轮询标识合并查询
+     *
+     * @return 合并窗口，单位毫秒
+     */
+    default long getBatchWindow() {
+        return 50;
+    }
+
+    /**
+     * 获取单次批量查询的最大数量
+     *
+     * @return 单次批量查询的最大数量
+     */
+    default int getMaxBatchSize() {
+        return 100;
+    }
+}
@@ -0,0 +1,148 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量查询分发器，按执行器类型合并同一窗口内到期的轮询
+ * <p>
+ * 同一批次的查询使用批次中首个轮询器的执行器实例调用{@link BatchAsyncTaskExecutor#queryAll(java.util.Collection)}，
+ * 批次中的轮询标识可能来自同一类型的不同执行器实例
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+class BatchQueryDispatcher {
+
+    /**
+     * 执行器类型对应的分发器
+     */
+    private static final ConcurrentMap<Class<?>, BatchQueryDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+    /**
+     * 等待查询的轮询器
+     */
+    private List<AsyncTaskPoller<?, ?, ?>> pendingPollers = new ArrayList<>();
+
+    /**
+     * 是否已调度合并查询
+     */
+    private boolean scheduled;
+
+    /**
+     * 加入当前窗口的批量查询
+     *
+     * @param poller            轮询器
+     * @param asyncTaskExecutor 批量异步任务执行器
+     */
+    static void enqueue(AsyncTaskPoller<?, ?, ?> poller, BatchAsyncTaskExecutor<?, ?, ?> asyncTaskExecutor) {
+
+        DISPATCHERS.computeIfAbsent(asyncTaskExecutor.getClass(), x -> new BatchQueryDispatcher()).add(poller, asyncTaskExecutor.getBatchWindow());
+    }
+
+    private synchronized void add(AsyncTaskPoller<?, ?, ?> poller, long batchWindow) {
+
+        pendingPollers.add(poller);
+
+        if (!scheduled) {
+
+            scheduled = true;
+            SharedTimer.schedule(this::flush, batchWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 窗口到期，按轮询器的线程池分组并按最大批量拆分后提交执行，提交被拒绝时同批轮询器均以异常结束
+     */
+    private void flush() {
+
+        List<AsyncTaskPoller<?, ?, ?>> pollers;
+
+        synchronized (this) {
+
+            pollers = pendingPollers;
+            pendingPollers = new ArrayList<>();
+            scheduled = false;
+        }
+
+        int maxBatchSize = Math.max(1, ((BatchAsyncTaskExecutor<?, ?, ?>) pollers.get(0).getAsyncTaskExecutor()).getMaxBatchSize());
+
+        Map<Executor, List<AsyncTaskPoller<?, ?, ?>>> pollersByExecutor = new LinkedHashMap<>();
+
+        for (AsyncTaskPoller<?, ?, ?> poller : pollers) {
+
+            pollersByExecutor.computeIfAbsent(poller.getExecutor(), x -> new ArrayList<>()).add(poller);
+        }
+
+        for (Map.Entry<Executor, List<AsyncTaskPoller<?, ?, ?>>> entry : pollersByExecutor.entrySet()) {
+
+            List<AsyncTaskPoller<?, ?, ?>> group = entry.getValue();
+
+            for (int i = 0; i < group.size(); i += maxBatchSize) {
+
+                List<AsyncTaskPoller<?, ?, ?>> batch = group.subList(i, Math.min(i + maxBatchSize, group.size()));
+
+                try {
+
+                    SharedTimer.handOff(entry.getKey(), () -> query(batch));
+
+                } catch (RuntimeException e) {
+
+                    for (AsyncTaskPoller<?, ?, ?> poller : batch) {
+
+                        poller.fail(e);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void query(List<AsyncTaskPoller<?, ?, ?>> batch) {
+
+        List<Object> posParams = new ArrayList<>(batch.size());
+
+        for (AsyncTaskPoller<?, ?, ?> poller : batch) {
+
+            posParams.add(poller.getPosParam());
+        }
+
+        Map<Object, TaskResult> results;
+
+        try {
+
+            results = ((BatchAsyncTaskExecutor) batch.get(0).getAsyncTaskExecutor()).queryAll(posParams);
+
+        } catch (Throwable e) {
+
+            for (AsyncTaskPoller<?, ?, ?> poller : batch) {
+
+                poller.fail(e);
+            }
+
+            return;
+        }
+
+        for (AsyncTaskPoller poller : batch) {
+
+            TaskResult taskResult = results == null ? null : results.get(poller.getPosParam());
+
+            if (taskResult == null) {
+
+                poller.fail(new IllegalStateException("批量查询结果缺失"));
+            } else {
+
+                poller.onQueried(taskResult);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskParam;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 批量同步任务执行器
+ * <p>
+ * 批量键相同的任务在合并窗口内或达到最大批量时合并为一次{@link #invokeAll(Collection)}调用，
+ * 批量结果按参数分发回各自的任务；合并窗口从批次中首个任务开始计时，
+ * 同一批次可合并的任务数受线程池中同时执行的线程数限制，等待合并的任务各自占用一个线程直到批量结果返回
+ * <p>
+ * 并行提交时收集到一同提交的全部同批量键任务后立即执行批量调用，串行执行时不等待合并窗口，每个任务单独调用
+ * <p>
+ * 批量调用使用批次中任一任务的执行器实例执行，{@link #invokeAll(Collection)}只能依赖请求参数，
+ * 批量键相同的执行器需无状态或状态一致
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public abstract class BatchingSyncTaskExecutor<K, T> extends AbstractSyncTaskExecutor<K, T> {
+
+    public BatchingSyncTaskExecutor(TaskParam<K> param) {
+        super(param);
+    }
+
+    public BatchingSyncTaskExecutor(TaskParam<K> param, Integer... dependencies) {
+        super(param, dependencies);
+    }
+
+    /**
+     * 一同提交且批量键相同的任务数，为0表示未知，仅按合并窗口与最大批量关闭批次
+     */
+    private volatile int expectedBatchSize;
+
+    /**
+     * 批量执行
+     *
+     * @param params 同一批次中去重后的请求参数
+     * @return 请求参数与执行结果的映射，需包含全部请求参数
+     * @throws Throwable 异常信息
+     */
+    public abstract Map<K, T> invokeAll(Collection<K> params) throws Throwable;
+
+    /**
+     * 加入批次并等待批量执行结果
+     *
+     * @param param 请求参数
+     * @return 执行结果
+     * @throws Throwable 异常信息
+     */
+    @Override
+    public final T invoke(K param) throws Throwable {
+        return SyncBatchCollector.of(this).invoke(this, param);
+    }
+
+    @Override
+    public Object batchKey() {
+        return getBatchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        this.expectedBatchSize = batchSize;
+    }
+
+    int getExpectedBatchSize() {
+        return expectedBatchSize;
+    }
+
+    /**
+     * 获取批量键，批量键相同的任务可合并执行
+     *
+     * @return 批量键，默认为执行器类型
+     */
+    public Object getBatchKey() {
+        return getClass();
+    }
+
+    /**
+     * 获取合并窗口
+     *
+     * @return 合并窗口，单位毫秒
+     */
+    public long getBatchWindow() {
+        return 10;
+    }
+
+    /**
+     * 获取单次批量执行的最大数量
+     *
+     * @return 单次批量执行的最大数量
+     */
+    public int getMaxBatchSize() {
+        return 100;
+    }
+}
@@ -0,0 +1,104 @@
+package com.tj.core.utils.concurrent.executor;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 异步任务轮询策略，支持固定间隔、指数退避与随机抖动
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+@Getter
+public class PollingPolicy {
+
+    /**
+     * 默认策略，每秒轮询一次
+     */
+    public static final PollingPolicy DEFAULT = fixed(1000);
+
+    /**
+     * 首次轮询间隔，单位毫秒
+     */
+    private final long initialInterval;
+
+    /**
+     * 最大轮询间隔，单位毫秒
+     */
+    private final long maxInterval;
+
+    /**
+     * 退避倍数
+     */
+    private final double multiplier;
+
+    /**
+     * 抖动比例，取值[0, 1]，实际间隔在[interval * (1 - jitter), interval]之间随机
+     */
+    private final double jitter;
+
+    private PollingPolicy(long initialInterval, long maxInterval, double multiplier, double jitter) {
+
+        if (initialInterval <= 0 || maxInterval < initialInterval || multiplier < 1 || jitter < 0 || jitter > 1) {
+
+            throw new IllegalArgumentException("轮询策略参数配置错误");
+        }
+
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * 创建固定间隔的轮询策略
+     *
+     * @param interval 轮询间隔，单位毫秒
+     * @return 轮询策略
+     */
+    public static PollingPolicy fixed(long interval) {
+        return new PollingPolicy(interval, interval, 1, 0);
+    }
+
+    /**
+     * 创建指数退避的轮询策略
+     *
+     * @param initialInterval 首次轮询间隔，单位毫秒
+     * @param maxInterval     最大轮询间隔，单位毫秒
+     * @param multiplier      退避倍数
+     * @return 轮询策略
+     */
+    public static PollingPolicy exponential(long initialInterval, long maxInterval, double multiplier) {
+        return new PollingPolicy(initialInterval, maxInterval, multiplier, 0);
+    }
+
+    /**
+     * 在当前策略基础上增加随机抖动
+     *
+     * @param jitter 抖动比例，取值[0, 1]
+     * @return 新的轮询策略
+     */
+    public PollingPolicy withJitter(double jitter) {
+        return new PollingPolicy(initialInterval, maxInterval, multiplier, jitter);
+    }
+
+    /**
+     * 计算下一次轮询的间隔
+     *
+     * @param attempt 已轮询次数，从0开始
+     * @return 轮询间隔，单位毫秒
+     */
+    public long nextInterval(int attempt) {
+
+        double interval = initialInterval * Math.pow(multiplier, attempt);
+        long bounded = interval >= maxInterval ? maxInterval : (long) interval;
+
+        if (jitter == 0) {
+
+            return bounded;
+        }
+
+        return Math.max(1, (long) (bounded * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+    }
+}
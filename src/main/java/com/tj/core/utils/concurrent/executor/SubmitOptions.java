@@ -0,0 +1,39 @@
+package com.tj.core.utils.concurrent.executor;
+
+import lombok.Data;
+
+/**
+ * 同步任务批量提交选项
+ *
+ * @author tangjie
+ * @date 2022/5/20
+ */
+@Data
+public class SubmitOptions {
+
+    /**
+     * 全部任务的超时时间，单位毫秒，为空表示仅使用任务参数中的超时时间
+     */
+    private Long timeout;
+
+    /**
+     * 是否快速失败，开启后任一任务执行异常时取消其余未完成的任务
+     */
+    private boolean failFast;
+
+    /**
+     * 调用线程是否参与执行，开启后调用线程在等待期间执行尚未被线程池领取的任务，
+     * 被线程池拒绝的任务也由调用线程执行，不再按准入策略处理，仅对阻塞提交生效
+     */
+    private boolean callerRuns;
+
+    /**
+     * 线程池拒绝任务时的准入策略
+     */
+    private AdmissionPolicy admission = AdmissionPolicy.REJECT;
+
+    /**
+     * 准入等待时间，单位毫秒，仅对{@link AdmissionPolicy#BLOCK}生效，为空表示等待至任务超时
+     */
+    private Long admissionTimeout;
+}
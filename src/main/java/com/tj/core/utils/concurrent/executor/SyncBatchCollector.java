@@ -0,0 +1,243 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步任务批量收集器，按批量键合并同一窗口内的任务
+ * <p>
+ * 批次关闭后由仍在等待的任务之一在自身线程中执行批量调用，不占用额外线程；
+ * 执行批量调用的线程被中断时，由其他等待中的任务重新执行
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+class SyncBatchCollector {
+
+    /**
+     * 批量键对应的收集器
+     */
+    private static final ConcurrentMap<Object, SyncBatchCollector> COLLECTORS = new ConcurrentHashMap<>();
+
+    /**
+     * 当前收集中的批次
+     */
+    private Batch current;
+
+    static SyncBatchCollector of(BatchingSyncTaskExecutor<?, ?> executor) {
+
+        return COLLECTORS.computeIfAbsent(executor.getBatchKey(), x -> new SyncBatchCollector());
+    }
+
+    /**
+     * 加入批次并等待结果
+     *
+     * @param executor 批量同步任务执行器
+     * @param param    请求参数
+     * @return 执行结果
+     * @throws Throwable 异常信息
+     */
+    @SuppressWarnings("unchecked")
+    <K, T> T invoke(BatchingSyncTaskExecutor<K, T> executor, K param) throws Throwable {
+
+        Batch batch;
+        CompletableFuture<Object> future;
+        boolean created = false;
+        boolean full;
+
+        synchronized (this) {
+
+            batch = current;
+
+            if (batch == null) {
+
+                batch = new Batch(executor);
+                current = batch;
+                created = true;
+            }
+
+            future = batch.entries.computeIfAbsent(param, x -> new CompletableFuture<>());
+            batch.joined++;
+
+            // 达到最大批量，或一同提交的任务已全部加入时立即关闭批次
+            full = batch.entries.size() >= Math.max(1, executor.getMaxBatchSize()) || (batch.expected > 0 && batch.joined >= batch.expected);
+
+            if (full) {
+
+                current = null;
+            }
+        }
+
+        if (full) {
+
+            batch.ready();
+
+        } else if (created) {
+
+            Batch scheduled = batch;
+            SharedTimer.schedule(() -> close(scheduled), executor.getBatchWindow(), TimeUnit.MILLISECONDS);
+        }
+
+        batch.await(future);
+
+        try {
+
+            return (T) future.get();
+
+        } catch (ExecutionException e) {
+
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 窗口到期，关闭批次
+     */
+    private void close(Batch batch) {
+
+        synchronized (this) {
+
+            if (current == batch) {
+
+                current = null;
+            }
+        }
+
+        batch.ready();
+    }
+
+    /**
+     * 批次
+     */
+    private static class Batch {
+
+        Batch(BatchingSyncTaskExecutor<?, ?> executor) {
+            this.executor = executor;
+            this.expected = executor.getExpectedBatchSize();
+        }
+
+        /**
+         * 批次中首个任务的执行器，用于执行批量调用
+         */
+        private final BatchingSyncTaskExecutor<?, ?> executor;
+
+        /**
+         * 请求参数与结果，相同参数共享结果
+         */
+        private final Map<Object, CompletableFuture<Object>> entries = new LinkedHashMap<>();
+
+        /**
+         * 创建批次的任务声明的一同提交任务数，为0表示未知
+         */
+        private final int expected;
+
+        /**
+         * 已加入的任务数，相同参数的任务分别计数
+         */
+        private int joined;
+
+        /**
+         * 批次已关闭，可执行批量调用
+         */
+        private boolean ready;
+
+        /**
+         * 批量调用已被某个任务认领
+         */
+        private boolean claimed;
+
+        private synchronized void ready() {
+
+            ready = true;
+            notifyAll();
+        }
+
+        /**
+         * 等待结果，批次关闭且批量调用未被认领时由当前线程执行
+         */
+        private void await(CompletableFuture<Object> future) throws InterruptedException {
+
+            synchronized (this) {
+
+                while (!future.isDone() && (!ready || claimed)) {
+
+                    wait();
+                }
+
+                if (future.isDone()) {
+
+                    return;
+                }
+
+                claimed = true;
+            }
+
+            execute();
+        }
+
+        /**
+         * 执行批量调用，线程被中断时释放认领
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void execute() throws InterruptedException {
+
+            Map<Object, Object> results;
+
+            try {
+
+                results = ((BatchingSyncTaskExecutor) executor).invokeAll(new ArrayList<>(entries.keySet()));
+
+            } catch (Throwable e) {
+
+                if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+
+                    release();
+
+                    throw e instanceof InterruptedException ? (InterruptedException) e : new InterruptedException("批量执行被中断");
+                }
+
+                for (CompletableFuture<Object> future : entries.values()) {
+
+                    future.completeExceptionally(e);
+                }
+
+                complete();
+                return;
+            }
+
+            for (Map.Entry<Object, CompletableFuture<Object>> entry : entries.entrySet()) {
+
+                if (results == null || !results.containsKey(entry.getKey())) {
+
+                    entry.getValue().completeExceptionally(new IllegalStateException("批量执行结果缺失"));
+                } else {
+
+                    entry.getValue().complete(results.get(entry.getKey()));
+                }
+            }
+
+            complete();
+        }
+
+        private synchronized void complete() {
+            notifyAll();
+        }
+
+        /**
+         * 释放认领，由其他等待中的任务重新执行
+         */
+        private synchronized void release() {
+
+            claimed = false;
+            notifyAll();
+        }
+    }
+}
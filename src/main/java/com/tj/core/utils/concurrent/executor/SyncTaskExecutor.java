@@ -3,6 +3,9 @@ package com.tj.core.utils.concurrent.executor;
 import com.tj.core.utils.concurrent.param.TaskParam;
 import com.tj.core.utils.concurrent.param.TaskResult;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * 同步任务执行器
  *
@@ -26,4 +29,57 @@ public interface SyncTaskExecutor<K, T> {
      * @throws Throwable 异常信息
      */
     TaskResult<T> execute(TaskParam<K> param) throws Throwable;
+
+    /**
+     * 获取当前任务依赖的任务Id，仅在依赖图模式下生效
+     *
+     * @return 依赖的任务Id集合，默认无依赖
+     */
+    default Set<Integer> getDependencies() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * 任务是否幂等，幂等任务可被重复执行，如对冲执行
+     *
+     * @return 是否幂等，默认非幂等
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * 提交至线程池前判断任务是否直接结束，如熔断器打开时直接返回拒绝结果
+     *
+     * @return 直接结束时的任务结果，为空表示正常提交执行
+     */
+    default TaskResult<T> tryShortCircuit() {
+        return null;
+    }
+
+    /**
+     * 获取记录执行指标时的执行器类型，装饰器返回被装饰执行器的类型，使同一任务的指标不因装饰而分散
+     *
+     * @return 指标的执行器类型，默认为当前执行器类型
+     */
+    default Class<?> metricsKey() {
+        return getClass();
+    }
+
+    /**
+     * 获取批量键，装饰器返回被装饰执行器的批量键，用于统计一同提交的可合并任务数
+     *
+     * @return 批量键，默认为空表示不合并执行
+     */
+    default Object batchKey() {
+        return null;
+    }
+
+    /**
+     * 设置与当前任务一同提交且批量键相同的任务数，批量执行器收集到该数量的任务后不再等待合并窗口，装饰器需转发至被装饰的执行器
+     *
+     * @param batchSize 一同提交的任务数，串行执行时为1
+     */
+    default void expectBatchSize(int batchSize) {
+    }
 }
@@ -0,0 +1,278 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.exception.TaskRejectedException;
+import com.tj.core.utils.concurrent.metrics.TaskMetrics;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadpool.PrioritizedTask;
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步任务运行单元，将执行器的执行结果写入对应的CompletableFuture
+ * <p>
+ * 任务可在执行前或执行中被提前结束，执行中的线程会被中断，结束后的执行结果将被丢弃
+ *
+ * @author tangjie
+ * @date 2022/5/20
+ */
+public class SyncTaskRunner<K, T> implements PrioritizedTask {
+
+    public SyncTaskRunner(SyncTaskExecutor<K, T> syncTaskExecutor) {
+        this(syncTaskExecutor, true);
+    }
+
+    /**
+     * 创建任务运行单元
+     *
+     * @param syncTaskExecutor 同步任务执行器
+     * @param recordMetrics    是否记录执行指标，装饰器内部发起的执行由外层任务统一记录
+     */
+    public SyncTaskRunner(SyncTaskExecutor<K, T> syncTaskExecutor, boolean recordMetrics) {
+        this.syncTaskExecutor = syncTaskExecutor;
+        this.recordMetrics = recordMetrics;
+        this.createNanos = System.nanoTime();
+    }
+
+    /**
+     * 同步任务执行器
+     */
+    private final SyncTaskExecutor<K, T> syncTaskExecutor;
+
+    /**
+     * 是否记录执行指标
+     */
+    private final boolean recordMetrics;
+
+    /**
+     * 任务执行结果
+     */
+    private final CompletableFuture<TaskResult<T>> future = new CompletableFuture<>();
+
+    /**
+     * 创建时间，单位纳秒
+     */
+    private final long createNanos;
+
+    /**
+     * 截止时间，单位纳秒，设置超时时间后生效
+     */
+    private volatile long deadlineNanos = NO_DEADLINE;
+
+    /**
+     * 正在执行任务的线程
+     */
+    private Thread runner;
+
+    /**
+     * 任务是否已被领取执行，同一任务只会被一个线程执行
+     */
+    private boolean started;
+
+    /**
+     * 执行线程是否被当前任务中断
+     */
+    private boolean interrupted;
+
+    @Override
+    public void run() {
+
+        synchronized (this) {
+
+            if (started || future.isDone()) {
+
+                return;
+            }
+
+            started = true;
+            runner = Thread.currentThread();
+        }
+
+        try {
+
+            long startNanos = System.nanoTime();
+
+            TaskResult<T> taskResult = TaskExecuteManager.doExecute(syncTaskExecutor, startNanos);
+
+            // 已超时或取消的任务不计入执行指标
+            if (future.complete(taskResult) && recordMetrics) {
+
+                TaskMetrics.recordExecution(syncTaskExecutor.metricsKey(), startNanos - createNanos, System.nanoTime() - startNanos, taskResult.isException());
+            }
+
+        } finally {
+
+            boolean clearInterrupt;
+
+            synchronized (this) {
+
+                runner = null;
+                clearInterrupt = interrupted;
+            }
+
+            // 清除由提前结束导致的中断标识，避免影响线程后续执行的任务
+            if (clearInterrupt) {
+
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * 以指定结果提前结束任务，执行中的线程会被中断
+     *
+     * @param taskResult 任务结果
+     * @return 是否由本次调用结束任务
+     */
+    public boolean cancel(TaskResult<T> taskResult) {
+
+        if (!future.complete(taskResult)) {
+
+            return false;
+        }
+
+        synchronized (this) {
+
+            if (runner != null) {
+
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 以超时结果提前结束任务
+     *
+     * @return 是否由本次调用结束任务
+     */
+    public boolean timeout() {
+
+        long latencyNanos = System.nanoTime() - createNanos;
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setTimeout(true);
+        taskResult.setResponseTime(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+
+        if (!cancel(taskResult)) {
+
+            return false;
+        }
+
+        if (recordMetrics) {
+
+            TaskMetrics.recordTimeout(syncTaskExecutor.metricsKey(), latencyNanos);
+        }
+
+        return true;
+    }
+
+    /**
+     * 以取消结果提前结束任务
+     *
+     * @return 是否由本次调用结束任务
+     */
+    public boolean cancel() {
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setCancelled(true);
+        taskResult.setResponseTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createNanos));
+
+        return cancel(taskResult);
+    }
+
+    /**
+     * 以拒绝结果提前结束任务
+     *
+     * @param message 拒绝原因
+     * @return 是否由本次调用结束任务
+     */
+    public boolean reject(String message) {
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setRejected(true);
+        taskResult.setException(true);
+        taskResult.setExceptionMsg(new TaskRejectedException(message));
+        taskResult.setResponseTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createNanos));
+
+        return cancel(taskResult);
+    }
+
+    /**
+     * 在指定时间后以超时结果结束任务，任务提前完成时取消定时
+     *
+     * @param timeout 超时时间，单位毫秒
+     */
+    public void scheduleTimeout(long timeout) {
+
+        if (timeout <= 0) {
+
+            timeout();
+            return;
+        }
+
+        deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        ScheduledFuture<?> scheduledFuture = SharedTimer.schedule(this::timeout, timeout, TimeUnit.MILLISECONDS);
+
+        future.whenComplete((x, y) -> scheduledFuture.cancel(false));
+    }
+
+    /**
+     * 获取任务优先级
+     *
+     * @return 任务参数中的优先级，未设置时为0
+     */
+    @Override
+    public int getPriority() {
+
+        Integer priority = syncTaskExecutor.getParam().getPriority();
+
+        return priority == null ? 0 : priority;
+    }
+
+    @Override
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * 已过截止时间的任务以超时结果结束
+     */
+    @Override
+    public void expire() {
+        timeout();
+    }
+
+    /**
+     * 获取任务参数
+     *
+     * @return 任务参数
+     */
+    public TaskParam<K> getParam() {
+        return syncTaskExecutor.getParam();
+    }
+
+    /**
+     * 获取同步任务执行器
+     *
+     * @return 同步任务执行器
+     */
+    public SyncTaskExecutor<K, T> getSyncTaskExecutor() {
+        return syncTaskExecutor;
+    }
+
+    /**
+     * 获取任务执行结果，任务完成后结束
+     *
+     * @return 任务执行结果
+     */
+    public CompletableFuture<TaskResult<T>> getFuture() {
+        return future;
+    }
+}
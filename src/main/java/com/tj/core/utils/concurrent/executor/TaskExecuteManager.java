@@ -1,17 +1,27 @@
 package com.tj.core.utils.concurrent.executor;
 
 import com.tj.core.utils.JsonUtil;
+import com.tj.core.utils.concurrent.metrics.TaskMetrics;
 import com.tj.core.utils.concurrent.param.TaskParam;
 import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.param.TaskResults;
+import com.tj.core.utils.concurrent.threadpool.BoundedExecutor;
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +33,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TaskExecuteManager {
 
+    /**
+     * 阻塞准入时重试提交的最大间隔，单位毫秒
+     */
+    private static final long MAX_ADMISSION_INTERVAL = 16;
+
     /**
      * 提交同步任务执行器
      *
@@ -31,8 +46,182 @@ public class TaskExecuteManager {
      * @param <K>                  任务请求参数类型，需继承TaskParam类
      * @param <T>                  任务返回结果
      * @return 任务执行结果
+     * @throws InterruptedException 线程中断异常
+     */
+    public static <K, T> TaskResults<K, T> submitSync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList) throws InterruptedException {
+        return submitSync(executor, syncTaskExecutorList, new SubmitOptions());
+    }
+
+    /**
+     * 提交同步任务执行器，超时未完成的任务会被中断并返回超时结果
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param timeout              全部任务的超时时间，单位毫秒，为空表示仅使用任务参数中的超时时间
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 任务执行结果，包含已完成任务的结果与超时任务的超时结果
+     * @throws InterruptedException 线程中断异常
+     */
+    public static <K, T> TaskResults<K, T> submitSync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, Long timeout) throws InterruptedException {
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setTimeout(timeout);
+
+        return submitSync(executor, syncTaskExecutorList, submitOptions);
+    }
+
+    /**
+     * 按提交选项提交同步任务执行器
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param submitOptions        提交选项
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 任务执行结果
+     * @throws InterruptedException 线程中断异常
+     */
+    public static <K, T> TaskResults<K, T> submitSync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, SubmitOptions submitOptions) throws InterruptedException {
+
+        List<SyncTaskRunner<K, T>> runners = dispatch(executor, syncTaskExecutorList, submitOptions, submitOptions.isCallerRuns(), false);
+
+        // 调用线程从队尾开始执行尚未被线程池领取的任务，直至全部任务已开始执行
+        if (submitOptions.isCallerRuns()) {
+
+            for (int i = runners.size() - 1; i >= 0; i--) {
+
+                runners.get(i).run();
+            }
+        }
+
+        CompletableFuture<TaskResults<K, T>> future = collect(runners);
+
+        try {
+
+            return future.get();
+
+        } catch (ExecutionException e) {
+            // 单个任务的异常已转换为异常结果，此处仅为兜底
+            throw new IllegalStateException("同步任务执行异常", e.getCause());
+        }
+    }
+
+    /**
+     * 提交同步任务执行器，不阻塞调用线程
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 全部任务执行完成后结束的任务执行结果
+     */
+    public static <K, T> CompletableFuture<TaskResults<K, T>> submitSyncAsync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList) {
+        return submitSyncAsync(executor, syncTaskExecutorList, new SubmitOptions());
+    }
+
+    /**
+     * 提交同步任务执行器，不阻塞调用线程，超时未完成的任务会被中断并返回超时结果
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param timeout              全部任务的超时时间，单位毫秒，为空表示仅使用任务参数中的超时时间
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 全部任务执行完成或超时后结束的任务执行结果
+     */
+    public static <K, T> CompletableFuture<TaskResults<K, T>> submitSyncAsync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, Long timeout) {
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setTimeout(timeout);
+
+        return submitSyncAsync(executor, syncTaskExecutorList, submitOptions);
+    }
+
+    /**
+     * 按提交选项提交同步任务执行器，不阻塞调用线程
+     * <p>
+     * 阻塞准入由共享定时器重试提交，不支持调用线程执行的准入策略
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param submitOptions        提交选项
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 全部任务结束后结束的任务执行结果
+     */
+    public static <K, T> CompletableFuture<TaskResults<K, T>> submitSyncAsync(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, SubmitOptions submitOptions) {
+        return collect(dispatch(executor, syncTaskExecutorList, submitOptions, false, true));
+    }
+
+    /**
+     * 按提交选项提交同步任务执行器，每个任务结束时立即回调，不阻塞调用线程
+     * <p>
+     * 回调在结束任务的线程中执行，可能被多个线程并发调用，直接结束或提交时被拒绝的任务在调用线程中回调；
+     * 回调抛出异常时，返回的任务执行结果以该异常结束；准入策略的限制与{@link #submitSyncAsync(Executor, List, SubmitOptions)}相同
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param submitOptions        提交选项，调用线程参与执行不生效
+     * @param listener             任务结果回调，参数为任务参数与执行结果
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 全部任务结束且回调完成后结束的任务执行结果
+     */
+    public static <K, T> CompletableFuture<TaskResults<K, T>> submitSyncStreaming(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, SubmitOptions submitOptions,
+                                                                                   BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
+
+        if (listener == null) {
+
+            throw new IllegalArgumentException("listener不能为空");
+        }
+
+        List<SyncTaskRunner<K, T>> runners = dispatch(executor, syncTaskExecutorList, submitOptions, false, true);
+
+        CompletableFuture<?>[] notified = new CompletableFuture<?>[runners.size()];
+
+        for (int i = 0; i < runners.size(); i++) {
+
+            SyncTaskRunner<K, T> runner = runners.get(i);
+
+            notified[i] = runner.getFuture().thenAccept(x -> listener.accept(runner.getParam(), x));
+        }
+
+        return CompletableFuture.allOf(notified).thenCompose(v -> collect(runners));
+    }
+
+    /**
+     * 按提交选项提交同步任务执行器，返回按完成顺序读取任务结果的流
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param submitOptions        提交选项，调用线程参与执行不生效
+     * @param <K>                  任务请求参数类型
+     * @param <T>                  任务返回结果
+     * @return 任务结果流
+     */
+    public static <K, T> TaskResultStream<K, T> submitSyncStreaming(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutorList, SubmitOptions submitOptions) {
+
+        int capacity = syncTaskExecutorList == null ? 0 : syncTaskExecutorList.size();
+
+        return TaskResultStream.of(capacity, x -> submitSyncStreaming(executor, syncTaskExecutorList, submitOptions, x));
+    }
+
+    /**
+     * 校验并将同步任务执行器提交至线程池
+     *
+     * @param executor             线程池
+     * @param syncTaskExecutorList 任务执行器列表
+     * @param submitOptions        提交选项
+     * @param callerRuns           调用线程是否在提交后执行尚未被线程池领取的任务
+     * @param async                是否为异步提交，异步提交不阻塞调用线程
+     * @return 任务运行单元
      */
-    public static <K, T> Map<TaskParam<K>, TaskResult<T>> submitSync(Executor executor, List<SyncTaskExecutor<K, T>> syncTaskExecutorList) throws InterruptedException {
+    private static <K, T> List<SyncTaskRunner<K, T>> dispatch(Executor executor, List<? extends SyncTaskExecutor<? extends K, ? extends T>> executorList, SubmitOptions submitOptions,
+                                                              boolean callerRuns, boolean async) {
+
+        List<SyncTaskExecutor<K, T>> syncTaskExecutorList = uniform(executorList);
+
         // 校验执行器不能为空
         if (syncTaskExecutorList == null || syncTaskExecutorList.size() == 0) {
 
@@ -54,47 +243,541 @@ public class TaskExecuteManager {
             throw new IllegalArgumentException("任务唯一标识Id不能重复");
         }
 
-        Map<TaskParam<K>, TaskResult<T>> resultMap = new ConcurrentHashMap<>(20);
+        // 异步提交不能在调用线程中执行任务
+        if (async && submitOptions.getAdmission() == AdmissionPolicy.CALLER_RUNS) {
+
+            throw new IllegalArgumentException("异步提交不支持调用线程执行的准入策略");
+        }
 
-        int count = syncTaskExecutorList.size();
-        CountDownLatch countDownLatch = new CountDownLatch(count);
+        List<SyncTaskRunner<K, T>> runners = new ArrayList<>(syncTaskExecutorList.size());
 
         for (SyncTaskExecutor<K, T> syncTaskExecutor : syncTaskExecutorList) {
 
-            executor.execute(() -> {
+            runners.add(new SyncTaskRunner<>(syncTaskExecutor));
+        }
 
-                TaskParam<K> param = syncTaskExecutor.getParam();
+        // 快速失败，任一任务异常时取消其余任务，被线程池拒绝的任务不视为执行异常
+        if (submitOptions.isFailFast()) {
 
-                TaskResult<T> taskResult = null;
-                long startTime = System.currentTimeMillis();
+            for (SyncTaskRunner<K, T> runner : runners) {
 
-                try {
+                runner.getFuture().thenAccept(x -> {
 
-                    taskResult = syncTaskExecutor.execute(param);
-                    resultMap.put(param, taskResult);
+                    if (x.isException() && !x.isRejected()) {
 
-                } catch (Throwable e) {
+                        cancelAll(executor, runners);
+                    }
+                });
+            }
+        }
 
-                    log.error("任务器执行异常,执行器名称:[{}],任务参数信息:[{}]", syncTaskExecutor.getClass().getName(), JsonUtil.toJson(param), e);
-                    taskResult = new TaskResult<>();
-                    taskResult.setException(true);
-                    taskResult.setExceptionMsg(e);
-                    resultMap.put(param, taskResult);
+        List<SyncTaskRunner<K, T>> pendingRunners = new ArrayList<>(runners.size());
 
-                } finally {
+        for (SyncTaskRunner<K, T> runner : runners) {
 
-                    if (taskResult != null) {
-                        taskResult.setResponseTime(System.currentTimeMillis() - startTime);
-                    }
-                    countDownLatch.countDown();
+            // 直接结束的任务不提交至线程池
+            TaskResult<T> shortCircuitResult = runner.getSyncTaskExecutor().tryShortCircuit();
+
+            if (shortCircuitResult != null) {
+
+                runner.cancel(shortCircuitResult);
+                continue;
+            }
+
+            Long taskTimeout = taskTimeoutOf(runner.getParam(), submitOptions.getTimeout());
+
+            if (taskTimeout != null && taskTimeout <= 0) {
+
+                runner.timeout();
+                continue;
+            }
+
+            if (taskTimeout != null) {
+
+                runner.scheduleTimeout(taskTimeout);
+            }
+
+            pendingRunners.add(runner);
+        }
 
+        expectBatchSizes(pendingRunners);
+
+        AdmissionPolicy admission = callerRuns ? AdmissionPolicy.REJECT : submitOptions.getAdmission();
+
+        // 整批准入，剩余容量不足时不提交任何任务
+        if (admission == AdmissionPolicy.REJECT_ALL && pendingRunners.size() > remainingCapacity(executor)) {
+
+            rejectAll(executor, pendingRunners, String.format("线程池剩余容量不足,任务数:[%s]", pendingRunners.size()));
+
+            return runners;
+        }
+
+        for (SyncTaskRunner<K, T> runner : pendingRunners) {
+
+            // 已被快速失败取消的任务不再提交
+            if (runner.getFuture().isDone()) {
+
+                continue;
+            }
+
+            try {
+
+                executor.execute(runner);
+
+            } catch (RejectedExecutionException e) {
+                // 异步提交的阻塞准入由共享定时器重试
+                if (async && admission == AdmissionPolicy.BLOCK) {
+
+                    admitLater(executor, runner, deadlineNanosOf(submitOptions.getAdmissionTimeout()), 1);
+                    continue;
+                }
+
+                // 调用线程参与执行时，被拒绝的任务由调用线程执行
+                if (callerRuns || admit(executor, runner, admission, submitOptions.getAdmissionTimeout())) {
+
+                    continue;
+                }
+
+                if (admission == AdmissionPolicy.REJECT_ALL) {
+
+                    rejectAll(executor, pendingRunners, "线程池已满,整批任务被拒绝");
+                    break;
                 }
-            });
 
+                runner.reject("线程池已满,任务被拒绝");
+            }
         }
 
-        countDownLatch.await();
-        return resultMap;
+        return runners;
+    }
+
+    /**
+     * 统计一同提交的各批量键的任务数，批量执行器收集到全部任务后立即执行批量调用，不再等待合并窗口
+     *
+     * @param runners 待提交的任务
+     */
+    private static <K, T> void expectBatchSizes(List<SyncTaskRunner<K, T>> runners) {
+
+        Map<Object, Integer> batchSizes = new HashMap<>();
+
+        for (SyncTaskRunner<K, T> runner : runners) {
+
+            Object batchKey = runner.getSyncTaskExecutor().batchKey();
+
+            if (batchKey != null) {
+
+                batchSizes.merge(batchKey, 1, Integer::sum);
+            }
+        }
+
+        if (batchSizes.isEmpty()) {
+
+            return;
+        }
+
+        for (SyncTaskRunner<K, T> runner : runners) {
+
+            Object batchKey = runner.getSyncTaskExecutor().batchKey();
+
+            if (batchKey != null) {
+
+                runner.getSyncTaskExecutor().expectBatchSize(batchSizes.get(batchKey));
+            }
+        }
+    }
+
+    /**
+     * 按准入策略处理被线程池拒绝的任务
+     *
+     * @param executor         线程池
+     * @param runner           被拒绝的任务
+     * @param admission        准入策略
+     * @param admissionTimeout 准入等待时间，单位毫秒，为空表示等待至任务超时
+     * @return 任务是否已被接收、执行或提前结束
+     */
+    private static <K, T> boolean admit(Executor executor, SyncTaskRunner<K, T> runner, AdmissionPolicy admission, Long admissionTimeout) {
+
+        if (admission == AdmissionPolicy.CALLER_RUNS) {
+
+            runner.run();
+            return true;
+        }
+
+        if (admission != AdmissionPolicy.BLOCK) {
+
+            return false;
+        }
+
+        // 执行器不提供阻塞提交，以递增的间隔重试直至被接收、任务超时或超过准入等待时间
+        Long deadlineNanos = deadlineNanosOf(admissionTimeout);
+        long interval = 1;
+
+        while (!runner.getFuture().isDone()) {
+
+            if (isShutdown(executor)) {
+
+                return false;
+            }
+
+            long sleep = interval;
+
+            if (deadlineNanos != null) {
+
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+
+                if (remaining <= 0) {
+
+                    return false;
+                }
+
+                sleep = Math.min(sleep, remaining);
+            }
+
+            try {
+
+                Thread.sleep(sleep);
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                return false;
+            }
+
+            interval = Math.min(interval * 2, MAX_ADMISSION_INTERVAL);
+
+            try {
+
+                executor.execute(runner);
+                return true;
+
+            } catch (RejectedExecutionException e) {
+                // 线程池仍已满，继续等待
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 将参数与结果类型协变的执行器列表按统一类型处理，执行器只以自身的参数执行，结果只作为声明的上界类型读取
+     *
+     * @param executorList 执行器列表
+     * @return 同一列表
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, T> List<SyncTaskExecutor<K, T>> uniform(List<? extends SyncTaskExecutor<? extends K, ? extends T>> executorList) {
+        return (List<SyncTaskExecutor<K, T>>) (List<?>) executorList;
+    }
+
+    /**
+     * 异步提交的阻塞准入，在共享定时器中以递增的间隔重试提交，不阻塞调用线程
+     *
+     * @param executor      线程池
+     * @param runner        被拒绝的任务
+     * @param deadlineNanos 准入截止时间，单位纳秒，为空表示等待至任务超时
+     * @param interval      本次重试间隔，单位毫秒
+     */
+    private static <K, T> void admitLater(Executor executor, SyncTaskRunner<K, T> runner, Long deadlineNanos, long interval) {
+
+        try {
+
+            SharedTimer.schedule(() -> {
+
+                if (runner.getFuture().isDone()) {
+
+                    return;
+                }
+
+                try {
+
+                    SharedTimer.handOff(executor, runner);
+                    return;
+
+                } catch (RejectedExecutionException e) {
+                    // 线程池仍已满，继续等待
+                }
+
+                if (isShutdown(executor) || (deadlineNanos != null && System.nanoTime() - deadlineNanos >= 0)) {
+
+                    runner.reject("线程池已满,任务被拒绝");
+                    return;
+                }
+
+                admitLater(executor, runner, deadlineNanos, Math.min(interval * 2, MAX_ADMISSION_INTERVAL));
+
+            }, interval, TimeUnit.MILLISECONDS);
+
+        } catch (RejectedExecutionException e) {
+            // 定时器已关闭时不再重试
+            runner.reject("线程池已满,任务被拒绝");
+        }
+    }
+
+    private static Long deadlineNanosOf(Long timeout) {
+        return timeout == null ? null : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    private static boolean isShutdown(Executor executor) {
+        return executor instanceof ExecutorService && ((ExecutorService) executor).isShutdown();
+    }
+
+    /**
+     * 以拒绝结果结束全部未完成的任务，尚在线程池队列中的任务直接移出队列
+     *
+     * @param executor 线程池
+     * @param runners  任务运行单元
+     * @param message  拒绝原因
+     */
+    private static <K, T> void rejectAll(Executor executor, List<SyncTaskRunner<K, T>> runners, String message) {
+
+        for (SyncTaskRunner<K, T> runner : runners) {
+
+            if (runner.reject(message) && executor instanceof ThreadPoolExecutor) {
+
+                ((ThreadPoolExecutor) executor).remove(runner);
+            }
+        }
+    }
+
+    /**
+     * 获取执行器当前还可接收的任务数
+     *
+     * @param executor 执行器
+     * @return 剩余容量，无法获取时返回Integer.MAX_VALUE
+     */
+    private static int remainingCapacity(Executor executor) {
+
+        if (executor instanceof BoundedExecutor) {
+
+            return ((BoundedExecutor) executor).getRemainingCapacity();
+        }
+
+        if (executor instanceof ThreadPoolExecutor) {
+
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+
+            if (threadPoolExecutor.isShutdown()) {
+
+                return 0;
+            }
+
+            // 队列剩余容量与尚可领取任务的线程数之和
+            long idleThreads = Math.max(0, threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount());
+
+            return (int) Math.min(Integer.MAX_VALUE, threadPoolExecutor.getQueue().remainingCapacity() + idleThreads);
+        }
+
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 汇总任务执行结果
+     *
+     * @param runners 任务运行单元
+     * @return 全部任务结束后结束的任务执行结果
+     */
+    private static <K, T> CompletableFuture<TaskResults<K, T>> collect(List<SyncTaskRunner<K, T>> runners) {
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[runners.size()];
+
+        for (int i = 0; i < runners.size(); i++) {
+
+            futures[i] = runners.get(i).getFuture();
+        }
+
+        return CompletableFuture.allOf(futures).thenApply(v -> {
+
+            TaskResults.Builder<K, T> taskResults = new TaskResults.Builder<>(runners.size());
+
+            for (int i = 0; i < runners.size(); i++) {
+
+                taskResults.set(i, runners.get(i).getParam(), runners.get(i).getFuture().join());
+            }
+
+            return taskResults.build();
+        });
+    }
+
+    /**
+     * 在当前线程执行单个同步任务执行器
+     *
+     * @param syncTaskExecutor 同步任务执行器
+     * @param <K>              任务请求参数类型
+     * @param <T>              任务返回结果
+     * @return 任务执行结果，执行异常时返回异常结果
+     */
+    public static <K, T> TaskResult<T> execute(SyncTaskExecutor<K, T> syncTaskExecutor) {
+
+        long startNanos = System.nanoTime();
+
+        TaskResult<T> taskResult = doExecute(syncTaskExecutor, startNanos);
+
+        TaskMetrics.recordExecution(syncTaskExecutor.metricsKey(), 0, System.nanoTime() - startNanos, taskResult.isException());
+
+        return taskResult;
+    }
+
+    /**
+     * 执行同步任务，不记录执行指标
+     *
+     * @param syncTaskExecutor 同步任务执行器
+     * @param startNanos       开始执行时间，单位纳秒
+     * @return 执行结果
+     */
+    static <K, T> TaskResult<T> doExecute(SyncTaskExecutor<K, T> syncTaskExecutor, long startNanos) {
+
+        TaskParam<K> param = syncTaskExecutor.getParam();
+
+        TaskResult<T> taskResult = null;
+
+        try {
+
+            taskResult = syncTaskExecutor.execute(param);
+
+            if (taskResult == null) {
+
+                throw new IllegalStateException("任务执行结果不能为空");
+            }
+
+        } catch (Throwable e) {
+
+            log.error("任务器执行异常,执行器名称:[{}],任务参数信息:[{}]", syncTaskExecutor.getClass().getName(), JsonUtil.toJson(param), e);
+            taskResult = new TaskResult<>();
+            taskResult.setException(true);
+            taskResult.setExceptionMsg(e);
+
+        } finally {
+
+            if (taskResult != null) {
+                taskResult.setResponseTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+
+        }
+
+        return taskResult;
+    }
+
+    /**
+     * 取消未完成的任务，尚在线程池队列中的任务直接移出队列
+     *
+     * @param executor 线程池
+     * @param runners  任务运行单元
+     */
+    private static <K, T> void cancelAll(Executor executor, List<SyncTaskRunner<K, T>> runners) {
+
+        for (SyncTaskRunner<K, T> runner : runners) {
+
+            if (runner.cancel() && executor instanceof ThreadPoolExecutor) {
+
+                ((ThreadPoolExecutor) executor).remove(runner);
+            }
+        }
+    }
+
+    /**
+     * 在当前线程执行单个同步任务执行器，超时后中断当前线程并返回超时结果
+     * <p>
+     * 执行器未响应中断时，当前线程仍需等待执行器返回，但执行结果将被丢弃
+     *
+     * @param syncTaskExecutor 同步任务执行器
+     * @param timeout          超时时间，单位毫秒，为空表示仅使用任务参数中的超时时间
+     * @param <K>              任务请求参数类型
+     * @param <T>              任务返回结果
+     * @return 任务执行结果
+     */
+    public static <K, T> TaskResult<T> executeWithTimeout(SyncTaskExecutor<K, T> syncTaskExecutor, Long timeout) {
+
+        Long taskTimeout = taskTimeoutOf(syncTaskExecutor.getParam(), timeout);
+
+        if (taskTimeout == null) {
+
+            return execute(syncTaskExecutor);
+        }
+
+        SyncTaskRunner<K, T> runner = new SyncTaskRunner<>(syncTaskExecutor);
+        runner.scheduleTimeout(taskTimeout);
+        runner.run();
+
+        return runner.getFuture().join();
+    }
+
+    /**
+     * 将单个同步任务执行器提交至线程池，超时后立即返回超时结果，不等待未响应中断的执行器返回
+     * <p>
+     * 直接结束的任务不提交至线程池，被线程池拒绝的任务返回拒绝结果
+     *
+     * @param executor         线程池
+     * @param syncTaskExecutor 同步任务执行器
+     * @param timeout          超时时间，单位毫秒，为空表示仅使用任务参数中的超时时间
+     * @param <K>              任务请求参数类型
+     * @param <T>              任务返回结果
+     * @return 任务结束或超时后结束的执行结果
+     */
+    public static <K, T> CompletableFuture<TaskResult<T>> submitWithTimeout(Executor executor, SyncTaskExecutor<K, T> syncTaskExecutor, Long timeout) {
+
+        SyncTaskRunner<K, T> runner = new SyncTaskRunner<>(syncTaskExecutor);
+
+        TaskResult<T> shortCircuitResult = syncTaskExecutor.tryShortCircuit();
+
+        if (shortCircuitResult != null) {
+
+            runner.cancel(shortCircuitResult);
+            return runner.getFuture();
+        }
+
+        Long taskTimeout = taskTimeoutOf(syncTaskExecutor.getParam(), timeout);
+
+        if (taskTimeout != null) {
+
+            runner.scheduleTimeout(taskTimeout);
+        }
+
+        if (runner.getFuture().isDone()) {
+
+            return runner.getFuture();
+        }
+
+        try {
+
+            executor.execute(runner);
+
+        } catch (RejectedExecutionException e) {
+
+            runner.reject("线程池已满,任务被拒绝");
+        }
+
+        return runner.getFuture();
+    }
+
+    /**
+     * 计算任务的超时时间，取任务超时时间、任务截止时间与指定超时时间中最早到期的一个
+     *
+     * @param param   任务参数
+     * @param timeout 超时时间，单位毫秒，为空表示不限制
+     * @return 超时时间，单位毫秒，为空表示不限制
+     */
+    private static Long taskTimeoutOf(TaskParam<?> param, Long timeout) {
+
+        Long taskTimeout = minTimeout(param.getTimeout(), timeout);
+
+        return param.getDeadline() == null ? taskTimeout : minTimeout(taskTimeout, param.getDeadline() - System.currentTimeMillis());
+    }
+
+    /**
+     * 取两个超时时间中较小的一个
+     *
+     * @param timeout      超时时间，为空表示不限制
+     * @param otherTimeout 超时时间，为空表示不限制
+     * @return 较小的超时时间，均为空时返回空
+     */
+    public static Long minTimeout(Long timeout, Long otherTimeout) {
+
+        if (timeout == null) {
+
+            return otherTimeout;
+        }
+
+        return otherTimeout == null ? timeout : Math.min(timeout, otherTimeout);
     }
 
     /**
@@ -108,7 +791,7 @@ public class TaskExecuteManager {
      * @return 执行结果
      * @throws InterruptedException 线程中断异常
      */
-    public static <K, T, V> Map<TaskParam<K>, TaskResult<T>> submitAsync(Executor executor, List<AsyncTaskExecutor<K, T, V>> asyncTaskExecutorList) throws InterruptedException {
+    public static <K, T, V> TaskResults<K, T> submitAsync(Executor executor, List<AsyncTaskExecutor<K, T, V>> asyncTaskExecutorList) throws InterruptedException {
         // 校验执行器不能为空
         if (asyncTaskExecutorList == null || asyncTaskExecutorList.size() == 0) {
 
@@ -135,70 +818,27 @@ public class TaskExecuteManager {
             throw new IllegalArgumentException("任务唯一标识Id不能重复");
         }
 
-        Map<TaskParam<K>, TaskResult<T>> resultMap = new ConcurrentHashMap<>(20);
-
-        int count = asyncTaskExecutorList.size();
-        CountDownLatch countDownLatch = new CountDownLatch(count);
+        List<CompletableFuture<TaskResult<T>>> futures = new ArrayList<>(asyncTaskExecutorList.size());
 
         for (AsyncTaskExecutor<K, T, V> asyncTaskExecutor : asyncTaskExecutorList) {
 
-            executor.execute(() -> {
-
-                long startTime = System.currentTimeMillis();
-                TaskResult<T> lastRet = null;
-
-                TaskParam<K> taskParam = asyncTaskExecutor.getParam();
-
-                try {
-
-                    TaskResult<V> ret = asyncTaskExecutor.submit(taskParam);
-
-                    // 每秒轮询一次
-                    int pollingTimes = asyncTaskExecutor.getExpireTime() / 1;
-                    // 执行计数器
-                    int countFlag = 0;
-                    // 轮询是否成功
-                    boolean regFlag = false;
-
-                    while (countFlag++ < pollingTimes && !regFlag) {
-
-                        try {
-                            TimeUnit.SECONDS.sleep(1);
-                        } catch (InterruptedException e) {
-
-                        }
-
-                        // 此处查询结果发生异常则终止查询
-                        lastRet = asyncTaskExecutor.query(ret.getData());
-                        regFlag = asyncTaskExecutor.isExecuteSuccess(lastRet.getData());
-                    }
-
-                    if (lastRet != null) {
-
-                        lastRet.setPollingExpired(!regFlag);
-                    }
+            futures.add(new AsyncTaskPoller<>(executor, asyncTaskExecutor).start());
+        }
 
-                    resultMap.put(taskParam, lastRet);
+        TaskResults.Builder<K, T> taskResults = new TaskResults.Builder<>(futures.size());
 
-                } catch (Throwable e) {
+        for (int i = 0; i < futures.size(); i++) {
 
-                    log.error("异步任务执行异常,执行器名称:[{}],任务参数信息:[{}]", asyncTaskExecutor.getClass().getName(), JsonUtil.toJson(taskParam), e);
-                    lastRet = new TaskResult<>();
-                    lastRet.setException(true);
-                    lastRet.setExceptionMsg(e);
-                    resultMap.put(taskParam, lastRet);
+            try {
 
-                } finally {
-                    if (lastRet != null) {
-                        lastRet.setResponseTime(System.currentTimeMillis() - startTime);
-                    }
-                    countDownLatch.countDown();
+                taskResults.set(i, asyncTaskExecutorList.get(i).getParam(), futures.get(i).get());
 
-                }
-            });
+            } catch (ExecutionException e) {
+                // 轮询异常已转换为异常结果，此处仅为兜底
+                throw new IllegalStateException("异步任务执行异常", e.getCause());
+            }
         }
 
-        countDownLatch.await();
-        return resultMap;
+        return taskResults.build();
     }
 }
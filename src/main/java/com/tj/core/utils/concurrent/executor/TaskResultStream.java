@@ -0,0 +1,111 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.param.TaskResults;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 按完成顺序读取任务结果的流，任务结束后即可读取其结果，无需等待全部任务结束
+ * <p>
+ * 缓冲区容量为任务总数，结束任务的线程不会因读取缓慢被阻塞；仅支持单个线程读取，
+ * 全部任务结束或执行异常中止后流结束，汇总结果与异常通过{@link #getResults()}获取
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskResultStream<K, T> {
+
+    /**
+     * 流结束标识
+     */
+    private static final Object END = new Object();
+
+    private TaskResultStream(int capacity) {
+        this.completions = new ArrayBlockingQueue<>(capacity + 1);
+    }
+
+    /**
+     * 已结束且尚未读取的任务结果
+     */
+    private final BlockingQueue<Object> completions;
+
+    private CompletableFuture<TaskResults<K, T>> results;
+
+    /**
+     * 已取出但尚未返回的元素
+     */
+    private Object next;
+
+    /**
+     * 创建结果流
+     *
+     * @param capacity 任务总数
+     * @param source   以结果回调启动任务，返回全部任务结束且回调完成后结束的任务执行结果
+     * @param <K>      任务请求参数类型
+     * @param <T>      任务返回结果
+     * @return 结果流
+     */
+    public static <K, T> TaskResultStream<K, T> of(int capacity, Function<BiConsumer<TaskParam<K>, TaskResult<T>>, CompletableFuture<TaskResults<K, T>>> source) {
+
+        TaskResultStream<K, T> stream = new TaskResultStream<>(capacity);
+
+        stream.results = source.apply((x, y) -> stream.completions.add(new AbstractMap.SimpleImmutableEntry<>(x, y)));
+        stream.results.whenComplete((x, y) -> stream.completions.add(END));
+
+        return stream;
+    }
+
+    /**
+     * 等待下一个任务结束
+     *
+     * @return 是否还有未读取的任务结果，流结束时返回false
+     * @throws InterruptedException 线程中断异常
+     */
+    public boolean hasNext() throws InterruptedException {
+
+        if (next == null) {
+
+            next = completions.take();
+        }
+
+        return next != END;
+    }
+
+    /**
+     * 读取下一个结束的任务结果，没有已结束的任务时等待
+     *
+     * @return 任务参数与执行结果
+     * @throws InterruptedException 线程中断异常
+     */
+    @SuppressWarnings("unchecked")
+    public Map.Entry<TaskParam<K>, TaskResult<T>> next() throws InterruptedException {
+
+        if (!hasNext()) {
+
+            throw new NoSuchElementException();
+        }
+
+        Map.Entry<TaskParam<K>, TaskResult<T>> entry = (Map.Entry<TaskParam<K>, TaskResult<T>>) next;
+        next = null;
+
+        return entry;
+    }
+
+    /**
+     * 获取汇总的任务执行结果
+     *
+     * @return 全部任务结束后结束的任务执行结果，任务执行异常中止时以对应异常结束
+     */
+    public CompletableFuture<TaskResults<K, T>> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tj.core.utils.concurrent.hedge;
+
+import lombok.Getter;
+
+/**
+ * 对冲策略，决定任务执行多久未完成时发起对冲请求
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+@Getter
+public class HedgePolicy {
+
+    /**
+     * 按分位值计算延迟时所需的最少样本数
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * 固定延迟或样本不足时的延迟，单位毫秒
+     */
+    private final long delay;
+
+    /**
+     * 分位，为0时使用固定延迟
+     */
+    private final double percentile;
+
+    private HedgePolicy(long delay, double percentile) {
+
+        if (delay < 0 || percentile < 0 || percentile >= 1) {
+
+            throw new IllegalArgumentException("对冲策略参数配置错误");
+        }
+
+        this.delay = delay;
+        this.percentile = percentile;
+    }
+
+    /**
+     * 创建固定延迟的对冲策略
+     *
+     * @param delay 延迟，单位毫秒
+     * @return 对冲策略
+     */
+    public static HedgePolicy fixedDelay(long delay) {
+        return new HedgePolicy(delay, 0);
+    }
+
+    /**
+     * 创建按执行器类型耗时分位值计算延迟的对冲策略
+     *
+     * @param percentile    分位，如0.95
+     * @param fallbackDelay 样本不足时的延迟，单位毫秒
+     * @return 对冲策略
+     */
+    public static HedgePolicy percentile(double percentile, long fallbackDelay) {
+
+        if (percentile <= 0) {
+
+            throw new IllegalArgumentException("对冲策略参数配置错误");
+        }
+
+        return new HedgePolicy(fallbackDelay, percentile);
+    }
+
+    /**
+     * 计算对冲延迟
+     *
+     * @param latencyTracker 执行器类型的耗时采样器
+     * @return 对冲延迟，单位毫秒
+     */
+    public long delayOf(LatencyTracker latencyTracker) {
+
+        if (percentile == 0 || latencyTracker.getCount() < MIN_SAMPLES) {
+
+            return delay;
+        }
+
+        return latencyTracker.percentile(percentile);
+    }
+}
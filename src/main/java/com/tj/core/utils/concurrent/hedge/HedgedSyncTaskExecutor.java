@@ -0,0 +1,285 @@
+package com.tj.core.utils.concurrent.hedge;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.executor.SyncTaskRunner;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对冲执行装饰器
+ * <p>
+ * 幂等任务执行超过对冲延迟仍未完成时，在对冲线程池中发起一次相同的请求，先成功返回的结果生效，
+ * 另一次请求被取消；首次请求在当前线程执行，对冲线程池只承担延迟发起的对冲请求，每个任务只占用一个业务线程，
+ * 首次请求不响应中断时需等待其结束后才能返回对冲结果；非幂等任务直接执行不做对冲
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class HedgedSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
+
+    public HedgedSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, Executor hedgeExecutor, HedgePolicy hedgePolicy) {
+
+        if (delegate == null || hedgeExecutor == null || hedgePolicy == null) {
+
+            throw new IllegalArgumentException("对冲执行参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.hedgeExecutor = hedgeExecutor;
+        this.hedgePolicy = hedgePolicy;
+        this.latencyTracker = LatencyTracker.of(delegate.metricsKey());
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final SyncTaskExecutor<K, T> delegate;
+
+    /**
+     * 对冲请求线程池
+     */
+    private final Executor hedgeExecutor;
+
+    private final HedgePolicy hedgePolicy;
+
+    private final LatencyTracker latencyTracker;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public Set<Integer> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return delegate.isIdempotent();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    @Override
+    public Object batchKey() {
+        return delegate.batchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        delegate.expectBatchSize(batchSize);
+    }
+
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+
+        if (!delegate.isIdempotent()) {
+
+            return delegate.execute(param);
+        }
+
+        HedgedExecution execution = new HedgedExecution();
+
+        ScheduledFuture<?> scheduledFuture = SharedTimer.schedule(execution::hedge, hedgePolicy.delayOf(latencyTracker), TimeUnit.MILLISECONDS);
+
+        try {
+
+            execution.attempt(execution.primary);
+            execution.primary.run();
+
+            if (Thread.currentThread().isInterrupted()) {
+
+                throw new InterruptedException("对冲执行被中断");
+            }
+
+            TaskResult<T> taskResult = execution.winner.get();
+
+            if (taskResult.isException()) {
+
+                throw taskResult.getExceptionMsg();
+            }
+
+            return taskResult;
+
+        } finally {
+
+            scheduledFuture.cancel(false);
+            execution.cancel();
+        }
+    }
+
+    /**
+     * 单次对冲执行的状态
+     */
+    private class HedgedExecution {
+
+        /**
+         * 首次请求
+         */
+        private final SyncTaskRunner<K, T> primary = new SyncTaskRunner<>(delegate, false);
+
+        /**
+         * 对冲请求
+         */
+        private final SyncTaskRunner<K, T> hedge = new SyncTaskRunner<>(delegate, false);
+
+        /**
+         * 最终生效的结果
+         */
+        private final CompletableFuture<TaskResult<T>> winner = new CompletableFuture<>();
+
+        /**
+         * 执行中的请求数
+         */
+        private int inFlight;
+
+        /**
+         * 已发起的请求数
+         */
+        private int attempts;
+
+        /**
+         * 结果已确定，不再发起对冲请求
+         */
+        private boolean closed;
+
+        /**
+         * 首个失败结果，全部请求失败时返回
+         */
+        private TaskResult<T> firstFailure;
+
+        /**
+         * 登记一次请求并监听其结果
+         */
+        private void attempt(SyncTaskRunner<K, T> runner) {
+
+            synchronized (this) {
+
+                inFlight++;
+                attempts++;
+            }
+
+            runner.getFuture().thenAccept(x -> complete(x, runner == hedge));
+        }
+
+        /**
+         * 对冲延迟到期，结果仍未确定时发起对冲请求
+         */
+        private void hedge() {
+
+            synchronized (this) {
+
+                if (closed) {
+
+                    return;
+                }
+            }
+
+            attempt(hedge);
+
+            try {
+
+                SharedTimer.handOff(hedgeExecutor, hedge);
+
+            } catch (RejectedExecutionException e) {
+                // 对冲线程池已满时放弃对冲，仅等待首次请求；首次请求已失败时直接返回其结果
+                synchronized (this) {
+
+                    inFlight--;
+                    attempts--;
+
+                    if (inFlight == 0 && firstFailure != null) {
+
+                        finish(firstFailure, false);
+                    }
+                }
+
+                hedge.cancel();
+            }
+        }
+
+        /**
+         * 请求完成，成功结果立即生效，失败结果在没有其他执行中的请求时生效
+         */
+        private void complete(TaskResult<T> taskResult, boolean fromHedge) {
+
+            // 被取消的请求不参与结果判定
+            if (taskResult.isCancelled()) {
+
+                return;
+            }
+
+            synchronized (this) {
+
+                inFlight--;
+
+                if (!taskResult.isException()) {
+
+                    latencyTracker.record(taskResult.getResponseTime());
+                    finish(taskResult, fromHedge);
+
+                } else {
+
+                    if (firstFailure == null) {
+
+                        firstFailure = taskResult;
+                    }
+
+                    if (inFlight == 0) {
+
+                        finish(firstFailure, false);
+                    }
+                }
+            }
+        }
+
+        private void finish(TaskResult<T> taskResult, boolean fromHedge) {
+
+            if (closed) {
+
+                return;
+            }
+
+            closed = true;
+
+            taskResult.setAttempts(attempts);
+            taskResult.setHedgeWon(fromHedge);
+
+            winner.complete(taskResult);
+
+            // 中断另一次仍在执行的请求
+            (fromHedge ? primary : hedge).cancel();
+        }
+
+        /**
+         * 取消未完成的请求
+         */
+        private void cancel() {
+
+            synchronized (this) {
+
+                closed = true;
+            }
+
+            primary.cancel();
+            hedge.cancel();
+        }
+    }
+}
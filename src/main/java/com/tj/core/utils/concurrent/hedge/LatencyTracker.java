@@ -0,0 +1,119 @@
+package com.tj.core.utils.concurrent.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 执行耗时采样器，按执行器类型保留最近的耗时样本用于估算分位值
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class LatencyTracker {
+
+    /**
+     * 执行器类型对应的采样器
+     */
+    private static final ConcurrentMap<Class<?>, LatencyTracker> TRACKERS = new ConcurrentHashMap<>();
+
+    /**
+     * 样本容量
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * 分位值重新计算的样本间隔
+     */
+    private static final int REFRESH_INTERVAL = 64;
+
+    /**
+     * 环形样本，单位毫秒
+     */
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+
+    /**
+     * 累计样本数
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * 最近一次计算的分位值，按分位取值缓存
+     */
+    private volatile double cachedPercentile = -1;
+
+    private volatile long cachedValue;
+
+    private volatile long cachedAt;
+
+    /**
+     * 获取执行器类型对应的采样器
+     *
+     * @param executorType 执行器类型
+     * @return 耗时采样器
+     */
+    public static LatencyTracker of(Class<?> executorType) {
+        return TRACKERS.computeIfAbsent(executorType, x -> new LatencyTracker());
+    }
+
+    /**
+     * 记录一次执行耗时
+     *
+     * @param latency 执行耗时，单位毫秒
+     */
+    public void record(long latency) {
+
+        long index = count.getAndIncrement();
+        samples.set((int) (index % CAPACITY), latency);
+    }
+
+    /**
+     * 获取累计样本数
+     *
+     * @return 累计样本数
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * 估算最近样本的分位值，每新增一定数量的样本重新计算一次
+     *
+     * @param percentile 分位，取值(0, 1)
+     * @return 分位值，单位毫秒，无样本时返回0
+     */
+    public long percentile(double percentile) {
+
+        long total = count.get();
+
+        if (total == 0) {
+
+            return 0;
+        }
+
+        if (cachedPercentile == percentile && total - cachedAt < REFRESH_INTERVAL) {
+
+            return cachedValue;
+        }
+
+        int size = (int) Math.min(total, CAPACITY);
+        long[] values = new long[size];
+
+        for (int i = 0; i < size; i++) {
+
+            values[i] = samples.get(i);
+        }
+
+        Arrays.sort(values);
+
+        long value = values[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+
+        cachedValue = value;
+        cachedAt = total;
+        cachedPercentile = percentile;
+
+        return value;
+    }
+}
@@ -0,0 +1,118 @@
+package com.tj.core.utils.concurrent.limit;
+
+import com.tj.core.utils.concurrent.exception.TaskRejectedException;
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+
+import java.util.Set;
+
+/**
+ * 并发限制装饰器
+ * <p>
+ * 共享同一并发限制器的执行器组成一组，组内执行中的任务数不超过限制器的当前限制；
+ * 并发与排队均已满时任务在提交至线程池前直接结束，执行时仍未获取到许可的任务同样返回拒绝结果
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class ConcurrencyLimitedSyncTaskExecutor<K, T> implements SyncTaskExecutor<K, T> {
+
+    /**
+     * @param delegate           被装饰的执行器
+     * @param concurrencyLimiter 并发限制器，需在同组执行器间共享
+     */
+    public ConcurrencyLimitedSyncTaskExecutor(SyncTaskExecutor<K, T> delegate, ConcurrencyLimiter concurrencyLimiter) {
+
+        if (delegate == null || concurrencyLimiter == null) {
+
+            throw new IllegalArgumentException("并发限制装饰器参数不能为空");
+        }
+
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * 被装饰的执行器
+     */
+    private final SyncTaskExecutor<K, T> delegate;
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    @Override
+    public TaskParam<K> getParam() {
+        return delegate.getParam();
+    }
+
+    @Override
+    public Set<Integer> getDependencies() {
+        return delegate.getDependencies();
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return delegate.isIdempotent();
+    }
+
+    @Override
+    public Class<?> metricsKey() {
+        return delegate.metricsKey();
+    }
+
+    @Override
+    public Object batchKey() {
+        return delegate.batchKey();
+    }
+
+    @Override
+    public void expectBatchSize(int batchSize) {
+        delegate.expectBatchSize(batchSize);
+    }
+
+    @Override
+    public TaskResult<T> tryShortCircuit() {
+
+        if (concurrencyLimiter.isSaturated()) {
+
+            return reject();
+        }
+
+        return delegate.tryShortCircuit();
+    }
+
+    @Override
+    public TaskResult<T> execute(TaskParam<K> param) throws Throwable {
+
+        if (!concurrencyLimiter.acquire()) {
+
+            return reject();
+        }
+
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            TaskResult<T> taskResult = delegate.execute(param);
+            failed = taskResult == null || taskResult.isException();
+
+            return taskResult;
+
+        } finally {
+
+            concurrencyLimiter.release(failed, System.nanoTime() - startNanos);
+        }
+    }
+
+    private TaskResult<T> reject() {
+
+        TaskResult<T> taskResult = new TaskResult<>();
+        taskResult.setRejected(true);
+        taskResult.setException(true);
+        taskResult.setExceptionMsg(new TaskRejectedException(String.format("并发限制[%s]已满,当前限制:[%s]", concurrencyLimiter.getName(), concurrencyLimiter.getLimit())));
+        taskResult.setResponseTime(0L);
+
+        return taskResult;
+    }
+}
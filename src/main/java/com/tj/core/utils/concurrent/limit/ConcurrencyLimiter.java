@@ -0,0 +1,275 @@
+package com.tj.core.utils.concurrent.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发限制器，可被一组执行器共享，按调用耗时与结果自动调整并发限制
+ * <p>
+ * AIMD算法在调用成功且并发接近限制时加一，失败或慢调用时按比例缩减；
+ * 梯度算法比较无负载耗时基线与短期平均耗时，耗时上升时按比例缩减限制，耗时平稳时以限制的平方根为余量增长
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class ConcurrencyLimiter {
+
+    /**
+     * 梯度算法允许的短期耗时相对耗时基线的上升比例
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * 梯度算法的限制平滑系数
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 耗时基线的刷新样本数，基线取上一窗口内的最小耗时，以适应下游无负载耗时的变化
+     */
+    private static final int BASELINE_WINDOW = 600;
+
+    /**
+     * 短期平均耗时的样本窗口
+     */
+    private static final int SHORT_WINDOW = 10;
+
+    /**
+     * 限制调整算法
+     */
+    public enum Algorithm {
+
+        /**
+         * 加性增、乘性减
+         */
+        AIMD,
+
+        /**
+         * 按长短期耗时梯度调整
+         */
+        GRADIENT
+    }
+
+    private final String name;
+
+    private final LimiterOptions options;
+
+    /**
+     * 当前并发限制，梯度算法下保留小数部分用于平滑
+     */
+    private double limit;
+
+    private int inFlight;
+
+    private int queued;
+
+    /**
+     * 耗时基线，单位纳秒
+     */
+    private long baselineRtt;
+
+    /**
+     * 当前基线窗口内的最小耗时，单位纳秒
+     */
+    private long windowMinRtt = Long.MAX_VALUE;
+
+    private int baselineSamples;
+
+    /**
+     * 短期平均耗时，单位纳秒
+     */
+    private double shortRtt;
+
+    /**
+     * 最近一次缩减限制的时间，单位纳秒，此前开始的调用不再触发缩减
+     */
+    private long lastBackoffNanos = System.nanoTime();
+
+    /**
+     * 梯度算法自上次调整限制后的样本数，每个短期窗口调整一次
+     */
+    private int samplesSinceUpdate;
+
+    public ConcurrencyLimiter(String name, LimiterOptions options) {
+
+        if (options == null || options.getAlgorithm() == null || options.getMinLimit() <= 0 || options.getMaxLimit() < options.getMinLimit()
+                || options.getInitialLimit() < options.getMinLimit() || options.getInitialLimit() > options.getMaxLimit()
+                || options.getMaxQueueSize() < 0 || options.getQueueTimeout() < 0 || options.getBackoffRatio() <= 0 || options.getBackoffRatio() >= 1) {
+
+            throw new IllegalArgumentException("并发限制参数配置错误");
+        }
+
+        this.name = name;
+        this.options = options;
+        this.limit = options.getInitialLimit();
+    }
+
+    /**
+     * 判断新任务是否会被直接拒绝，不占用许可，用于提交至线程池前的快速判断
+     *
+     * @return 并发与排队均已满时返回true
+     */
+    public synchronized boolean isSaturated() {
+        return inFlight >= (int) limit && queued >= options.getMaxQueueSize();
+    }
+
+    /**
+     * 获取许可，超出并发限制时按配置排队等待
+     *
+     * @return 是否获取到许可
+     * @throws InterruptedException 排队期间线程被中断
+     */
+    public synchronized boolean acquire() throws InterruptedException {
+
+        if (inFlight < (int) limit) {
+
+            inFlight++;
+            return true;
+        }
+
+        if (queued >= options.getMaxQueueSize() || options.getQueueTimeout() <= 0) {
+
+            return false;
+        }
+
+        queued++;
+
+        try {
+
+            long deadline = System.nanoTime() + options.getQueueTimeout() * 1000000L;
+
+            while (inFlight >= (int) limit) {
+
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+
+                    return false;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+
+            inFlight++;
+            return true;
+
+        } finally {
+
+            queued--;
+        }
+    }
+
+    /**
+     * 释放许可并按调用结果调整并发限制
+     *
+     * @param failed       调用是否失败
+     * @param latencyNanos 调用耗时，单位纳秒
+     */
+    public synchronized void release(boolean failed, long latencyNanos) {
+
+        int inFlightBefore = inFlight--;
+
+        if (options.getAlgorithm() == Algorithm.AIMD) {
+
+            updateAimd(failed, latencyNanos, inFlightBefore);
+        } else {
+
+            updateGradient(failed, latencyNanos, inFlightBefore);
+        }
+
+        if (queued > 0) {
+
+            notifyAll();
+        }
+    }
+
+    private void updateAimd(boolean failed, long latencyNanos, int inFlightBefore) {
+
+        boolean slow = options.getLatencyThreshold() != null && latencyNanos >= options.getLatencyThreshold() * 1000000L;
+
+        if (failed || slow) {
+
+            backoff(latencyNanos);
+
+        } else if (inFlightBefore * 2 >= limit) {
+            // 并发远低于限制时不增长，避免限制在低负载下无限放大
+            setLimit(limit + 1);
+        }
+    }
+
+    private void updateGradient(boolean failed, long latencyNanos, int inFlightBefore) {
+
+        if (failed) {
+
+            backoff(latencyNanos);
+            return;
+        }
+
+        latencyNanos = Math.max(1, latencyNanos);
+
+        if (baselineRtt == 0) {
+
+            baselineRtt = latencyNanos;
+            shortRtt = latencyNanos;
+            return;
+        }
+
+        shortRtt += (latencyNanos - shortRtt) / SHORT_WINDOW;
+        baselineRtt = Math.min(baselineRtt, latencyNanos);
+        windowMinRtt = Math.min(windowMinRtt, latencyNanos);
+
+        if (++baselineSamples >= BASELINE_WINDOW) {
+
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            baselineSamples = 0;
+        }
+
+        if (++samplesSinceUpdate < SHORT_WINDOW || inFlightBefore * 2 < limit) {
+
+            return;
+        }
+
+        samplesSinceUpdate = 0;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+
+        setLimit(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    /**
+     * 按比例缩减限制，同一批过载调用只缩减一次
+     */
+    private void backoff(long latencyNanos) {
+
+        long now = System.nanoTime();
+
+        if (now - latencyNanos < lastBackoffNanos) {
+
+            return;
+        }
+
+        lastBackoffNanos = now;
+        setLimit(limit * options.getBackoffRatio());
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(options.getMinLimit(), Math.min(options.getMaxLimit(), newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+}
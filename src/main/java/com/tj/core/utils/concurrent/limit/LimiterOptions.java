@@ -0,0 +1,53 @@
+package com.tj.core.utils.concurrent.limit;
+
+import lombok.Data;
+
+/**
+ * 自适应并发限制配置
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Data
+public class LimiterOptions {
+
+    /**
+     * 限制调整算法
+     */
+    private ConcurrencyLimiter.Algorithm algorithm = ConcurrencyLimiter.Algorithm.GRADIENT;
+
+    /**
+     * 初始并发限制
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 最小并发限制
+     */
+    private int minLimit = 1;
+
+    /**
+     * 最大并发限制
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * 超出并发限制时允许排队等待的任务数，为0时直接拒绝
+     */
+    private int maxQueueSize = 0;
+
+    /**
+     * 排队等待的超时时间，单位毫秒
+     */
+    private long queueTimeout = 0;
+
+    /**
+     * AIMD算法下出现失败或慢调用时的限制缩减比例，取值(0, 1)
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * AIMD算法下的慢调用阈值，单位毫秒，耗时达到阈值的调用视为过载，为空表示仅按失败判断
+     */
+    private Long latencyThreshold;
+}
@@ -0,0 +1,47 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 单个执行器类型的指标快照
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ExecutorMetricsSnapshot {
+
+    /**
+     * 执行器类型
+     */
+    private final Class<?> executorType;
+
+    /**
+     * 提交至开始执行的等待时间
+     */
+    private final HistogramSnapshot queueWait;
+
+    /**
+     * 执行时间
+     */
+    private final HistogramSnapshot runTime;
+
+    /**
+     * 提交至结束的总耗时，包含超时的任务
+     */
+    private final HistogramSnapshot latency;
+
+    /**
+     * 执行异常次数
+     */
+    private final long failureCount;
+
+    /**
+     * 超时次数
+     */
+    private final long timeoutCount;
+}
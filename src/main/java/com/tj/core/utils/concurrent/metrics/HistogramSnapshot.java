@@ -0,0 +1,88 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 耗时直方图快照，单位纳秒
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Getter
+public class HistogramSnapshot {
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    @Getter(AccessLevel.NONE)
+    private final long[] counts;
+
+    /**
+     * 样本数
+     */
+    private final long count;
+
+    /**
+     * 耗时总和
+     */
+    private final long sum;
+
+    /**
+     * 最大耗时
+     */
+    private final long max;
+
+    /**
+     * 平均耗时
+     *
+     * @return 平均耗时，无样本时返回0
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * 获取分位耗时，返回样本所在桶的上界且不超过最大耗时
+     *
+     * @param percentile 分位，取值范围0-100
+     * @return 分位耗时，无样本时返回0
+     */
+    public long percentile(double percentile) {
+
+        if (percentile < 0 || percentile > 100) {
+
+            throw new IllegalArgumentException("分位取值范围为0-100");
+        }
+
+        if (count == 0) {
+
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            seen += counts[i];
+
+            if (seen >= rank) {
+
+                return Math.min(LatencyHistogram.upperBoundOf(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot(count=" + count + ", mean=" + (long) getMean() + ", p50=" + percentile(50)
+                + ", p99=" + percentile(99) + ", p999=" + percentile(99.9) + ", max=" + max + ")";
+    }
+}
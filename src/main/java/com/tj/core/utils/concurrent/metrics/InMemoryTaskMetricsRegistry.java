@@ -0,0 +1,110 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存指标注册器，按执行器类型累计指标
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class InMemoryTaskMetricsRegistry implements TaskMetricsRegistry {
+
+    private final ConcurrentMap<Class<?>, ExecutorMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordExecution(Class<?> executorType, long queueWaitNanos, long runNanos, boolean failed) {
+
+        ExecutorMetrics executorMetrics = metricsOf(executorType);
+
+        executorMetrics.queueWait.record(queueWaitNanos);
+        executorMetrics.runTime.record(runNanos);
+        executorMetrics.latency.record(queueWaitNanos + runNanos);
+
+        if (failed) {
+
+            executorMetrics.failureCount.increment();
+        }
+    }
+
+    @Override
+    public void recordTimeout(Class<?> executorType, long latencyNanos) {
+
+        ExecutorMetrics executorMetrics = metricsOf(executorType);
+
+        executorMetrics.latency.record(latencyNanos);
+        executorMetrics.timeoutCount.increment();
+    }
+
+    /**
+     * 获取全部执行器类型的指标快照
+     *
+     * @return 指标快照列表
+     */
+    @Override
+    public List<ExecutorMetricsSnapshot> snapshot() {
+
+        List<ExecutorMetricsSnapshot> snapshots = new ArrayList<>(metrics.size());
+
+        for (Map.Entry<Class<?>, ExecutorMetrics> entry : metrics.entrySet()) {
+
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * 获取指定执行器类型的指标快照
+     *
+     * @param executorType 执行器类型
+     * @return 指标快照，未记录过时返回空
+     */
+    @Override
+    public ExecutorMetricsSnapshot snapshot(Class<?> executorType) {
+
+        ExecutorMetrics executorMetrics = metrics.get(executorType);
+
+        return executorMetrics == null ? null : executorMetrics.snapshot(executorType);
+    }
+
+    /**
+     * 清空全部指标
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private ExecutorMetrics metricsOf(Class<?> executorType) {
+
+        ExecutorMetrics executorMetrics = metrics.get(executorType);
+
+        return executorMetrics != null ? executorMetrics : metrics.computeIfAbsent(executorType, x -> new ExecutorMetrics());
+    }
+
+    /**
+     * 单个执行器类型的指标
+     */
+    private static class ExecutorMetrics {
+
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+
+        private final LatencyHistogram runTime = new LatencyHistogram();
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder failureCount = new LongAdder();
+
+        private final LongAdder timeoutCount = new LongAdder();
+
+        ExecutorMetricsSnapshot snapshot(Class<?> executorType) {
+            return new ExecutorMetricsSnapshot(executorType, queueWait.snapshot(), runTime.snapshot(), latency.snapshot(),
+                    failureCount.sum(), timeoutCount.sum());
+        }
+    }
+}
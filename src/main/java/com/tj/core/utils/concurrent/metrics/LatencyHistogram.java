@@ -0,0 +1,97 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图，单位纳秒
+ * <p>
+ * 按2的幂划分区间，每个区间再等分为16个桶，相对误差不超过6.25%；
+ * 记录操作仅为原子自增，无锁且不分配对象
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class LatencyHistogram {
+
+    /**
+     * 每个区间的桶数的位数
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时，单位纳秒，负数按0记录
+     */
+    public void record(long nanos) {
+
+        long value = Math.max(0, nanos);
+
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+
+        if (value > max.get()) {
+
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * 获取直方图快照，快照期间的并发记录可能部分计入
+     *
+     * @return 直方图快照
+     */
+    public HistogramSnapshot snapshot() {
+
+        long[] snapshotCounts = new long[BUCKET_COUNT];
+        long count = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+
+        return new HistogramSnapshot(snapshotCounts, count, sum.sum(), max.get());
+    }
+
+    static int indexOf(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /**
+     * 桶的上界
+     */
+    static long upperBoundOf(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+
+            return index;
+        }
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1));
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import java.util.List;
+
+/**
+ * 任务执行指标入口，默认使用内存注册器
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskMetrics {
+
+    private static volatile TaskMetricsRegistry registry = new InMemoryTaskMetricsRegistry();
+
+    private TaskMetrics() {
+    }
+
+    /**
+     * 获取当前使用的指标注册器
+     *
+     * @return 指标注册器
+     */
+    public static TaskMetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * 替换指标注册器
+     *
+     * @param taskMetricsRegistry 指标注册器
+     */
+    public static void setRegistry(TaskMetricsRegistry taskMetricsRegistry) {
+
+        if (taskMetricsRegistry == null) {
+
+            throw new IllegalArgumentException("指标注册器不能为空");
+        }
+
+        registry = taskMetricsRegistry;
+    }
+
+    /**
+     * 获取当前注册器中全部执行器类型的指标快照
+     *
+     * @return 指标快照列表，注册器不提供快照时为空列表
+     */
+    public static List<ExecutorMetricsSnapshot> snapshot() {
+        return registry.snapshot();
+    }
+
+    /**
+     * 获取当前注册器中指定执行器类型的指标快照，装饰后的执行器使用被装饰执行器的类型
+     *
+     * @param executorType 执行器类型
+     * @return 指标快照，未记录过或注册器不提供快照时返回空
+     */
+    public static ExecutorMetricsSnapshot snapshot(Class<?> executorType) {
+        return registry.snapshot(executorType);
+    }
+
+    /**
+     * 记录一次执行完成的任务，注册器异常不影响任务执行
+     *
+     * @param executorType   执行器类型
+     * @param queueWaitNanos 等待时间，单位纳秒
+     * @param runNanos       执行时间，单位纳秒
+     * @param failed         是否执行异常
+     */
+    public static void recordExecution(Class<?> executorType, long queueWaitNanos, long runNanos, boolean failed) {
+
+        try {
+
+            registry.recordExecution(executorType, queueWaitNanos, runNanos, failed);
+
+        } catch (RuntimeException ignored) {
+            // 指标记录失败不影响任务结果
+        }
+    }
+
+    /**
+     * 记录一次超时的任务，注册器异常不影响任务执行
+     *
+     * @param executorType 执行器类型
+     * @param latencyNanos 提交至超时的时间，单位纳秒
+     */
+    public static void recordTimeout(Class<?> executorType, long latencyNanos) {
+
+        try {
+
+            registry.recordTimeout(executorType, latencyNanos);
+
+        } catch (RuntimeException ignored) {
+            // 指标记录失败不影响任务结果
+        }
+    }
+}
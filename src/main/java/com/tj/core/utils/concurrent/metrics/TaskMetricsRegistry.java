@@ -0,0 +1,52 @@
+package com.tj.core.utils.concurrent.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 任务执行指标注册器，可替换为对接外部监控系统的实现
+ * <p>
+ * 记录方法在任务执行线程中同步调用，实现需线程安全且不应包含阻塞操作
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public interface TaskMetricsRegistry {
+
+    /**
+     * 记录一次执行完成的任务
+     *
+     * @param executorType   执行器类型
+     * @param queueWaitNanos 提交至开始执行的等待时间，单位纳秒
+     * @param runNanos       执行时间，单位纳秒
+     * @param failed         是否执行异常
+     */
+    void recordExecution(Class<?> executorType, long queueWaitNanos, long runNanos, boolean failed);
+
+    /**
+     * 记录一次超时的任务
+     *
+     * @param executorType 执行器类型
+     * @param latencyNanos 提交至超时的时间，单位纳秒
+     */
+    void recordTimeout(Class<?> executorType, long latencyNanos);
+
+    /**
+     * 获取全部执行器类型的指标快照，对接外部监控系统的注册器可不提供
+     *
+     * @return 指标快照列表，默认为空列表
+     */
+    default List<ExecutorMetricsSnapshot> snapshot() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 获取指定执行器类型的指标快照，对接外部监控系统的注册器可不提供
+     *
+     * @param executorType 执行器类型
+     * @return 指标快照，未记录过或不提供快照时返回空
+     */
+    default ExecutorMetricsSnapshot snapshot(Class<?> executorType) {
+        return null;
+    }
+}
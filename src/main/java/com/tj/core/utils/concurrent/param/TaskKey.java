@@ -0,0 +1,60 @@
+package com.tj.core.utils.concurrent.param;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+
+/**
+ * 任务结果的类型化索引，按任务在提交列表中的位置直接定位结果，无需哈希查找与类型转换
+ * <p>
+ * 任务位置与任务Id不变时可在多次执行间复用
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public final class TaskKey<T> {
+
+    private TaskKey(int index, Integer id) {
+        this.index = index;
+        this.id = id;
+    }
+
+    /**
+     * 任务在提交列表中的位置
+     */
+    private final int index;
+
+    /**
+     * 任务唯一标识，用于校验位置是否正确
+     */
+    private final Integer id;
+
+    /**
+     * 创建任务结果索引
+     *
+     * @param index            任务在提交列表中的位置，编排器中为跨容器的位置
+     * @param syncTaskExecutor 同步任务执行器
+     * @param <T>              任务返回结果
+     * @return 任务结果索引
+     */
+    public static <T> TaskKey<T> of(int index, SyncTaskExecutor<?, T> syncTaskExecutor) {
+
+        if (index < 0 || syncTaskExecutor == null || syncTaskExecutor.getParam() == null || syncTaskExecutor.getParam().getId() == null) {
+
+            throw new IllegalArgumentException("任务结果索引参数配置错误");
+        }
+
+        return new TaskKey<>(index, syncTaskExecutor.getParam().getId());
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskKey(index=" + index + ", id=" + id + ")";
+    }
+}
@@ -1,6 +1,5 @@
 package com.tj.core.utils.concurrent.param;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,9 +11,13 @@ import lombok.Setter;
  */
 @Getter
 @Setter
-@AllArgsConstructor
 public class TaskParam<T> {
 
+    public TaskParam(Integer id, T param) {
+        this.id = id;
+        this.param = param;
+    }
+
     /**
      * 任务唯一标识
      */
@@ -25,6 +28,20 @@ public class TaskParam<T> {
      */
     private T param;
 
+    /**
+     * 任务超时时间，单位毫秒，从任务提交时开始计算，为空表示不限制
+     */
+    private Long timeout;
+
+    /**
+     * 任务截止时间，毫秒时间戳，与超时时间同时设置时以较早者为准，为空表示不限制
+     */
+    private Long deadline;
+
+    /**
+     * 任务优先级，数值越小越优先，为空时为默认优先级0，仅在优先级线程池中生效
+     */
+    private Integer priority;
 
     /**
      * 重写equals和hashCode方法 id相同表示任务相同
@@ -26,11 +26,46 @@ public class TaskResult<T> {
      */
     private boolean isPollingExpired;
 
+    /**
+     * 任务是否执行超时，超时的任务会被中断且没有具体数据
+     */
+    private boolean isTimeout;
+
+    /**
+     * 任务是否被取消，如快速失败时被取消的同批任务
+     */
+    private boolean isCancelled;
+
     /**
      * 接口响应时间，单位毫秒
      */
     private Long responseTime;
 
+    /**
+     * 任务执行次数，对冲执行时包含对冲请求
+     */
+    private int attempts = 1;
+
+    /**
+     * 结果是否由对冲请求返回
+     */
+    private boolean isHedgeWon;
+
+    /**
+     * 结果是否复用了其他调用方相同的执行中任务
+     */
+    private boolean isCoalesced;
+
+    /**
+     * 任务是否被拒绝执行，如熔断器打开时直接返回的结果
+     */
+    private boolean isRejected;
+
+    /**
+     * 任务是否因依赖的任务执行异常或超时而未执行，仅在依赖图模式下出现
+     */
+    private boolean isSkipped;
+
     /**
      * 具体数据
      */
@@ -0,0 +1,303 @@
+package com.tj.core.utils.concurrent.param;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 任务执行结果集合，结果按任务位置存放在预分配的数组中
+ * <p>
+ * 结果只能通过{@link Builder}写入，返回给调用方的集合不提供写入方法；每个位置只由一个线程写入，
+ * 写入与读取之间需由线程池、CompletableFuture或CountDownLatch等建立先行发生关系，按Id建立的查找索引在首次查找时生成，此后不应再写入；
+ * 本身作为只读Map兼容按TaskParam查找，put与remove等修改操作抛出UnsupportedOperationException，推荐使用{@link #get(TaskKey)}按位置读取
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskResults<K, T> extends AbstractMap<TaskParam<K>, TaskResult<T>> {
+
+    /**
+     * 按Id查找时建立索引的最小任务数，任务数较少时直接遍历
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * @param capacity 任务总数
+     */
+    @SuppressWarnings("unchecked")
+    private TaskResults(int capacity) {
+        this.params = new TaskParam[capacity];
+        this.results = new TaskResult[capacity];
+    }
+
+    private final TaskParam<K>[] params;
+
+    private final TaskResult<T>[] results;
+
+    /**
+     * 任务Id与位置的索引，首次按Id查找时建立
+     */
+    private volatile Map<Integer, Integer> idIndex;
+
+    private Set<Entry<TaskParam<K>, TaskResult<T>>> entrySet;
+
+    /**
+     * 按位置获取结果
+     *
+     * @param index 任务位置
+     * @return 执行结果，任务未执行时为空
+     */
+    public TaskResult<T> get(int index) {
+        return results[index];
+    }
+
+    /**
+     * 按类型化索引获取结果
+     *
+     * @param taskKey 任务结果索引
+     * @param <R>     任务返回结果
+     * @return 执行结果，任务未执行时为空
+     * @throws IllegalArgumentException 索引位置的任务与索引的任务Id不一致
+     */
+    @SuppressWarnings("unchecked")
+    public <R> TaskResult<R> get(TaskKey<R> taskKey) {
+
+        int index = taskKey.getIndex();
+
+        if (index >= params.length) {
+
+            throw new IllegalArgumentException(String.format("任务结果索引超出任务总数%s", taskKey));
+        }
+
+        if (params[index] == null) {
+
+            return null;
+        }
+
+        if (!params[index].getId().equals(taskKey.getId())) {
+
+            throw new IllegalArgumentException(String.format("任务结果索引与任务位置不匹配%s", taskKey));
+        }
+
+        return (TaskResult<R>) results[index];
+    }
+
+    /**
+     * 按类型化索引获取结果数据
+     *
+     * @param taskKey 任务结果索引
+     * @param <R>     任务返回结果
+     * @return 结果数据，任务未执行时为空
+     */
+    public <R> R getData(TaskKey<R> taskKey) {
+
+        TaskResult<R> taskResult = get(taskKey);
+
+        return taskResult == null ? null : taskResult.getData();
+    }
+
+    /**
+     * 按位置获取任务参数
+     *
+     * @param index 任务位置
+     * @return 任务参数，任务未执行时为空
+     */
+    public TaskParam<K> getParam(int index) {
+        return params[index];
+    }
+
+    /**
+     * 任务总数，包含未执行的任务
+     *
+     * @return 任务总数
+     */
+    public int capacity() {
+        return params.length;
+    }
+
+    @Override
+    public TaskResult<T> get(Object key) {
+
+        int index = indexOf(key);
+
+        return index < 0 ? null : results[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+
+        int index = indexOf(key);
+
+        return index >= 0 && results[index] != null;
+    }
+
+    @Override
+    public Set<Entry<TaskParam<K>, TaskResult<T>>> entrySet() {
+
+        if (entrySet == null) {
+
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    private int indexOf(Object key) {
+
+        if (!(key instanceof TaskParam) || ((TaskParam<?>) key).getId() == null) {
+
+            return -1;
+        }
+
+        Integer id = ((TaskParam<?>) key).getId();
+
+        if (params.length < INDEX_THRESHOLD) {
+
+            for (int i = 0; i < params.length; i++) {
+
+                if (params[i] != null && params[i].getId().equals(id)) {
+
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        Map<Integer, Integer> index = idIndex;
+
+        if (index == null) {
+
+            index = new HashMap<>(params.length * 4 / 3 + 1);
+
+            for (int i = 0; i < params.length; i++) {
+
+                if (params[i] != null) {
+
+                    index.put(params[i].getId(), i);
+                }
+            }
+
+            idIndex = index;
+        }
+
+        Integer i = index.get(id);
+
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * 已写入结果的条目视图，只读
+     */
+    private class EntrySet extends AbstractSet<Entry<TaskParam<K>, TaskResult<T>>> {
+
+        @Override
+        public Iterator<Entry<TaskParam<K>, TaskResult<T>>> iterator() {
+
+            return new Iterator<Entry<TaskParam<K>, TaskResult<T>>>() {
+
+                private int next = advance(0);
+
+                private int advance(int from) {
+
+                    while (from < results.length && results[from] == null) {
+
+                        from++;
+                    }
+
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < results.length;
+                }
+
+                @Override
+                public Entry<TaskParam<K>, TaskResult<T>> next() {
+
+                    if (next >= results.length) {
+
+                        throw new NoSuchElementException();
+                    }
+
+                    Entry<TaskParam<K>, TaskResult<T>> entry = new SimpleImmutableEntry<>(params[next], results[next]);
+                    next = advance(next + 1);
+
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+
+            int size = 0;
+
+            for (TaskResult<T> taskResult : results) {
+
+                if (taskResult != null) {
+
+                    size++;
+                }
+            }
+
+            return size;
+        }
+    }
+
+    /**
+     * 结果写入器，由执行任务的一方持有，调用方只获得只读的结果集合
+     */
+    public static final class Builder<K, T> {
+
+        /**
+         * @param capacity 任务总数
+         */
+        public Builder(int capacity) {
+            this.taskResults = new TaskResults<>(capacity);
+        }
+
+        private final TaskResults<K, T> taskResults;
+
+        /**
+         * 写入指定位置的结果
+         *
+         * @param index      任务位置
+         * @param taskParam  任务参数
+         * @param taskResult 执行结果
+         * @return 结果写入器
+         */
+        public Builder<K, T> set(int index, TaskParam<K> taskParam, TaskResult<T> taskResult) {
+            taskResults.params[index] = taskParam;
+            taskResults.results[index] = taskResult;
+            return this;
+        }
+
+        /**
+         * 从另一个结果集合复制全部结果
+         *
+         * @param offset  当前集合的起始位置
+         * @param another 待复制的结果集合
+         * @return 结果写入器
+         */
+        public Builder<K, T> copyFrom(int offset, TaskResults<K, T> another) {
+            System.arraycopy(another.params, 0, taskResults.params, offset, another.params.length);
+            System.arraycopy(another.results, 0, taskResults.results, offset, another.results.length);
+            return this;
+        }
+
+        /**
+         * 获取结果集合，多次调用返回同一实例，此后写入的结果对该实例可见
+         *
+         * @return 只读的结果集合
+         */
+        public TaskResults<K, T> build() {
+            return taskResults;
+        }
+    }
+}
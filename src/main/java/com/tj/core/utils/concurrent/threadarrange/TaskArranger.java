@@ -1,18 +1,26 @@
 package com.tj.core.utils.concurrent.threadarrange;
 
-import com.tj.core.utils.JsonUtil;
 import com.tj.core.utils.concurrent.exception.ChildTaskException;
 import com.tj.core.utils.concurrent.exception.TaskExecuteException;
+import com.tj.core.utils.concurrent.exception.TaskRejectedException;
+import com.tj.core.utils.concurrent.executor.AdmissionPolicy;
+import com.tj.core.utils.concurrent.executor.SubmitOptions;
 import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
 import com.tj.core.utils.concurrent.executor.TaskExecuteManager;
+import com.tj.core.utils.concurrent.executor.TaskResultStream;
 import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskKey;
 import com.tj.core.utils.concurrent.param.TaskResult;
-import lombok.extern.slf4j.Slf4j;
+import com.tj.core.utils.concurrent.param.TaskResults;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
 
 /**
  * 任务编排器
@@ -20,7 +28,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author tangjie
  * @date 2022/5/20
  */
-@Slf4j
 public class TaskArranger {
     private TaskArranger() {
     }
@@ -41,6 +48,33 @@ public class TaskArranger {
 
     private boolean isExecuted = false;
 
+    /**
+     * 编排器整体超时时间，单位毫秒
+     */
+    private Long timeout;
+
+    /**
+     * 编排器截止时间，开始执行时根据超时时间计算
+     */
+    private Long deadline;
+
+    /**
+     * 设置编排器整体超时时间，到期后执行中的任务会被中断，未开始的任务不再执行，均返回超时结果
+     *
+     * @param timeout 超时时间，单位毫秒
+     * @return 任务编排器实例
+     */
+    public TaskArranger timeout(long timeout) {
+
+        if (timeout <= 0) {
+
+            throw new IllegalArgumentException("timeout必须大于0");
+        }
+
+        this.timeout = timeout;
+        return this;
+    }
+
     /**
      * 添加一个任务容器至任务编排器
      *
@@ -103,6 +137,36 @@ public class TaskArranger {
         return this;
     }
 
+    /**
+     * 获取任务结果的类型化索引，需在任务添加至编排器后调用，同一任务在编排器中的位置不变
+     *
+     * @param syncTaskExecutor 已添加的同步任务执行器
+     * @param <T>              任务返回结果
+     * @return 任务结果索引
+     */
+    public <T> TaskKey<T> keyOf(SyncTaskExecutor<?, T> syncTaskExecutor) {
+
+        int index = 0;
+
+        if (taskContainers != null) {
+
+            for (TaskContainer taskContainer : taskContainers) {
+
+                for (Object object : taskContainer.getSyncTaskExecutors()) {
+
+                    if (object == syncTaskExecutor) {
+
+                        return TaskKey.of(index, syncTaskExecutor);
+                    }
+
+                    index++;
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("syncTaskExecutor 未添加至任务编排器");
+    }
+
     /**
      * 任务执行
      *
@@ -110,7 +174,86 @@ public class TaskArranger {
      * @throws TaskExecuteException 任务执行异常信息
      * @throws InterruptedException 线程中断异常
      */
-    public <K, T> Map<TaskParam<K>, TaskResult<T>> doTasks() throws TaskExecuteException, InterruptedException {
+    public <K, T> TaskResults<K, T> doTasks() throws TaskExecuteException, InterruptedException {
+
+        if (isExecuted) {
+
+            throw new IllegalArgumentException("任务已被执行，不能重复执行");
+        }
+
+        if (taskContainers == null || taskContainers.size() == 0) {
+
+            throw new IllegalArgumentException("任务容器taskContainers不能为空");
+        }
+
+        isExecuted = true;
+        deadline = deadlineOf(timeout);
+
+        TaskResults.Builder<K, T> taskResults = new TaskResults.Builder<>(taskCount());
+        int offset = 0;
+
+        for (TaskContainer taskContainer : taskContainers) {
+
+            doTask(taskResults, offset, taskContainer);
+            offset += taskContainer.getSyncTaskExecutors().size();
+        }
+
+        return taskResults.build();
+    }
+
+    /**
+     * 任务异步执行，容器之间通过完成回调串联，不阻塞调用线程
+     * <p>
+     * 单任务容器与串行容器的任务在容器线程池中执行；任一任务执行异常时，
+     * 返回的CompletableFuture以{@link TaskExecuteException}异常结束
+     *
+     * @return 任务执行结果
+     */
+    public <K, T> CompletableFuture<TaskResults<K, T>> doTasksAsync() {
+        return arrangeAsync(null);
+    }
+
+    /**
+     * 任务异步执行，每个任务结束时立即回调，不阻塞调用线程
+     * <p>
+     * 回调在结束任务的线程中执行，并行容器内的回调可能被多个线程并发调用；
+     * 任一任务执行异常时其结果仍会回调，后续容器不再执行
+     *
+     * @param listener 任务结果回调，参数为任务参数与执行结果
+     * @return 任务执行结果
+     */
+    public <K, T> CompletableFuture<TaskResults<K, T>> doTasksStreaming(BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
+
+        if (listener == null) {
+
+            throw new IllegalArgumentException("listener不能为空");
+        }
+
+        return arrangeAsync(listener);
+    }
+
+    /**
+     * 任务异步执行，返回按完成顺序读取任务结果的流
+     *
+     * @return 任务结果流
+     */
+    public <K, T> TaskResultStream<K, T> doTasksStreaming() {
+
+        if (taskContainers == null || taskContainers.size() == 0) {
+
+            throw new IllegalArgumentException("任务容器taskContainers不能为空");
+        }
+
+        return TaskResultStream.of(taskCount(), this::doTasksStreaming);
+    }
+
+    /**
+     * 容器之间通过完成回调串联执行
+     *
+     * @param listener 任务结果回调，为空表示不回调
+     * @return 任务执行结果
+     */
+    private <K, T> CompletableFuture<TaskResults<K, T>> arrangeAsync(BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
 
         if (isExecuted) {
 
@@ -122,80 +265,317 @@ public class TaskArranger {
             throw new IllegalArgumentException("任务容器taskContainers不能为空");
         }
 
+        // 异步执行不能在调用线程中执行任务
+        for (TaskContainer taskContainer : taskContainers) {
+
+            if (taskContainer.getAdmission() == AdmissionPolicy.CALLER_RUNS) {
+
+                throw new IllegalArgumentException("异步执行不支持调用线程执行的准入策略");
+            }
+        }
+
         isExecuted = true;
+        deadline = deadlineOf(timeout);
 
-        Map<TaskParam<K>, TaskResult<T>> resultMap = new ConcurrentHashMap<>(20);
+        TaskResults.Builder<K, T> taskResults = new TaskResults.Builder<>(taskCount());
+        CompletableFuture<TaskResults<K, T>> stage = CompletableFuture.completedFuture(taskResults.build());
+        int offset = 0;
 
         for (TaskContainer taskContainer : taskContainers) {
 
-            doTask(resultMap, taskContainer);
+            int containerOffset = offset;
+            stage = stage.thenCompose(x -> doTaskAsync(taskResults, containerOffset, taskContainer, listener));
+            offset += taskContainer.getSyncTaskExecutors().size();
+        }
+
+        return stage;
+    }
+
+    /**
+     * 按任务依赖关系执行，忽略容器顺序与执行器类型，每个任务在其依赖的任务完成后立即使用所属容器的线程池执行
+     * <p>
+     * 容器超时时间从依赖图开始执行时计算，因依赖失败未执行的任务返回跳过结果
+     *
+     * @return 任务执行结果
+     * @throws TaskExecuteException 任务执行异常信息
+     * @throws InterruptedException 线程中断异常
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> TaskResults<K, T> doGraphTasks() throws TaskExecuteException, InterruptedException {
+
+        if (isExecuted) {
+
+            throw new IllegalArgumentException("任务已被执行，不能重复执行");
+        }
+
+        if (taskContainers == null || taskContainers.size() == 0) {
+
+            throw new IllegalArgumentException("任务容器taskContainers不能为空");
         }
 
-        return resultMap;
+        TaskGraph<K, T> taskGraph = new TaskGraph<>((List) taskContainers);
+
+        isExecuted = true;
+        deadline = deadlineOf(timeout);
+
+        TaskResults<K, T> taskResults = taskGraph.execute(deadline);
+
+        checkTaskExceptions(taskResults, 0, taskResults.capacity());
+
+        return taskResults;
     }
 
     /**
      * 任务执行
      *
-     * @param resultMap     任务执行结果
+     * @param taskResults   任务执行结果
+     * @param offset        容器中首个任务在编排器中的位置
      * @param taskContainer 任务容器
      * @throws TaskExecuteException 任务执行异常
      * @throws InterruptedException 线程中断异常
      */
-    private <K, T> void doTask(Map<TaskParam<K>, TaskResult<T>> resultMap, TaskContainer<K, T> taskContainer) throws TaskExecuteException, InterruptedException {
-        // 只有一个任务时，不需要线程池调度
-        if (taskContainer.getSyncTaskExecutors().size() == 1) {
+    private <K, T> void doTask(TaskResults.Builder<K, T> taskResults, int offset, TaskContainer<K, T> taskContainer) throws TaskExecuteException, InterruptedException {
 
-            SyncTaskExecutor<K, T> syncTaskExecutor = taskContainer.getSyncTaskExecutors().get(0);
+        Long containerDeadline = deadlineOf(taskContainer.getTimeout());
+        List<SyncTaskExecutor<K, T>> syncTaskExecutors = taskContainer.getSyncTaskExecutors();
 
-            Map<TaskParam<K>, TaskResult<T>> taskResultMap = singleExecute(syncTaskExecutor);
+        // 并行执行，只有一个任务时按串行执行
+        if (syncTaskExecutors.size() > 1 && ExecutorType.PARALLEL == taskContainer.getExecutorType()) {
 
-            checkTaskExceptions(taskResultMap);
+            taskResults.copyFrom(offset, TaskExecuteManager.submitSync(taskContainer.getThreadPool(), syncTaskExecutors, submitOptions(taskContainer, containerDeadline)));
 
-            resultMap.putAll(taskResultMap);
+            checkTaskExceptions(taskResults.build(), offset, offset + syncTaskExecutors.size());
 
             return;
         }
 
+        // 串行执行，不限时的任务在调用线程中执行，不需要线程池调度；限时的任务在容器线程池中执行，超时后立即返回超时结果
+        for (int i = 0; i < syncTaskExecutors.size(); i++) {
+
+            SyncTaskExecutor<K, T> syncTaskExecutor = syncTaskExecutors.get(i);
+
+            // 串行任务不会与其他任务合并，批量执行器不等待合并窗口
+            syncTaskExecutor.expectBatchSize(1);
+
+            TaskResult<T> taskResult;
+
+            try {
+
+                taskResult = isUntimed(syncTaskExecutor, containerDeadline) ? TaskExecuteManager.execute(syncTaskExecutor)
+                        : TaskExecuteManager.submitWithTimeout(taskContainer.getThreadPool(), syncTaskExecutor, remaining(containerDeadline)).get();
+
+            } catch (ExecutionException e) {
+                // 单个任务的异常已转换为异常结果，此处仅为兜底
+                throw new IllegalStateException("同步任务执行异常", e.getCause());
+            }
+
+            taskResults.set(offset + i, syncTaskExecutor.getParam(), taskResult);
+
+            checkTaskExceptions(taskResults.build(), offset + i, offset + i + 1);
+        }
+    }
+
+    /**
+     * 任务异步执行
+     *
+     * @param taskResults   任务执行结果
+     * @param offset        容器中首个任务在编排器中的位置
+     * @param taskContainer 任务容器
+     * @param listener      任务结果回调，为空表示不回调
+     * @return 容器内任务执行完成后结束的任务执行结果
+     */
+    private <K, T> CompletableFuture<TaskResults<K, T>> doTaskAsync(TaskResults.Builder<K, T> taskResults, int offset, TaskContainer<K, T> taskContainer,
+                                                                    BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
+
+        Long containerDeadline = deadlineOf(taskContainer.getTimeout());
+        List<SyncTaskExecutor<K, T>> syncTaskExecutors = taskContainer.getSyncTaskExecutors();
+
         // 并行执行
-        if (ExecutorType.PARALLEL == taskContainer.getExecutorType()) {
+        if (syncTaskExecutors.size() > 1 && ExecutorType.PARALLEL == taskContainer.getExecutorType()) {
+
+            SubmitOptions submitOptions = submitOptions(taskContainer, containerDeadline);
+
+            CompletableFuture<TaskResults<K, T>> future = listener == null ? TaskExecuteManager.submitSyncAsync(taskContainer.getThreadPool(), syncTaskExecutors, submitOptions)
+                    : TaskExecuteManager.submitSyncStreaming(taskContainer.getThreadPool(), syncTaskExecutors, submitOptions, listener);
+
+            return future.thenApply(x -> {
+
+                taskResults.copyFrom(offset, x);
+
+                return collectResults(taskResults.build(), offset, offset + syncTaskExecutors.size());
+            });
+        }
+
+        // 串行执行，前一个任务完成后再提交下一个任务；连续的不限时任务只提交一次，在同一线程中依次执行
+        CompletableFuture<TaskResults<K, T>> stage = CompletableFuture.completedFuture(taskResults.build());
+
+        for (SyncTaskExecutor<K, T> syncTaskExecutor : syncTaskExecutors) {
+
+            // 串行任务不会与其他任务合并，批量执行器不等待合并窗口
+            syncTaskExecutor.expectBatchSize(1);
+        }
+
+        for (int i = 0; i < syncTaskExecutors.size(); i++) {
+
+            SyncTaskExecutor<K, T> syncTaskExecutor = syncTaskExecutors.get(i);
+            int index = offset + i;
+
+            if (isUntimed(syncTaskExecutor, containerDeadline)) {
+
+                int to = i + 1;
+
+                while (to < syncTaskExecutors.size() && isUntimed(syncTaskExecutors.get(to), containerDeadline)) {
+
+                    to++;
+                }
+
+                List<SyncTaskExecutor<K, T>> untimedExecutors = syncTaskExecutors.subList(i, to);
+
+                stage = stage.thenCompose(x -> executeInPool(taskContainer.getThreadPool(), taskResults, index, untimedExecutors, listener));
+                i = to - 1;
+                continue;
+            }
+
+            stage = stage.thenCompose(x -> {
+
+                CompletableFuture<TaskResult<T>> future = TaskExecuteManager.submitWithTimeout(taskContainer.getThreadPool(), syncTaskExecutor, remaining(containerDeadline));
+
+                return future.thenApply(y -> {
+
+                    publish(taskResults, index, syncTaskExecutor, y, listener);
+
+                    return x;
+                });
+            });
+        }
+
+        return stage;
+    }
+
+    /**
+     * 在线程池的一个线程中依次执行不限时的串行任务，任一任务执行异常时不再执行其后的任务
+     *
+     * @param threadPool        容器线程池
+     * @param taskResults       任务执行结果
+     * @param offset            首个任务在编排器中的位置
+     * @param syncTaskExecutors 依次执行的任务
+     * @param listener          任务结果回调，为空表示不回调
+     * @return 任务执行完成后结束的任务执行结果
+     */
+    private <K, T> CompletableFuture<TaskResults<K, T>> executeInPool(Executor threadPool, TaskResults.Builder<K, T> taskResults, int offset,
+                                                                      List<SyncTaskExecutor<K, T>> syncTaskExecutors, BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
 
-            Map<TaskParam<K>, TaskResult<T>> taskResultMap = TaskExecuteManager.submitSync(taskContainer.getThreadPool(), taskContainer.getSyncTaskExecutors());
+        CompletableFuture<TaskResults<K, T>> future = new CompletableFuture<>();
 
-            checkTaskExceptions(taskResultMap);
+        try {
+
+            threadPool.execute(() -> {
+
+                try {
+
+                    for (int i = 0; i < syncTaskExecutors.size(); i++) {
+
+                        publish(taskResults, offset + i, syncTaskExecutors.get(i), TaskExecuteManager.execute(syncTaskExecutors.get(i)), listener);
+                    }
+
+                    future.complete(taskResults.build());
 
-            resultMap.putAll(taskResultMap);
+                } catch (Throwable e) {
 
-        } else { // 串行执行
+                    future.completeExceptionally(e);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
 
-            for (SyncTaskExecutor<K, T> syncTaskExecutor : taskContainer.getSyncTaskExecutors()) {
+            TaskResult<T> taskResult = new TaskResult<>();
+            taskResult.setRejected(true);
+            taskResult.setException(true);
+            taskResult.setExceptionMsg(new TaskRejectedException("线程池已满,任务被拒绝"));
+            taskResult.setResponseTime(0L);
 
-                Map<TaskParam<K>, TaskResult<T>> taskResultMap = singleExecute(syncTaskExecutor);
+            try {
 
-                checkTaskExceptions(taskResultMap);
+                publish(taskResults, offset, syncTaskExecutors.get(0), taskResult, listener);
+                future.complete(taskResults.build());
 
-                resultMap.putAll(taskResultMap);
+            } catch (Throwable t) {
 
+                future.completeExceptionally(t);
             }
+        }
+
+        return future;
+    }
+
+    /**
+     * 写入任务结果并回调，任务执行异常时抛出CompletionException
+     */
+    private <K, T> void publish(TaskResults.Builder<K, T> taskResults, int index, SyncTaskExecutor<K, T> syncTaskExecutor, TaskResult<T> taskResult,
+                               BiConsumer<TaskParam<K>, TaskResult<T>> listener) {
+
+        taskResults.set(index, syncTaskExecutor.getParam(), taskResult);
 
+        if (listener != null) {
+
+            listener.accept(syncTaskExecutor.getParam(), taskResult);
         }
 
+        collectResults(taskResults.build(), index, index + 1);
+    }
+
+    /**
+     * 判断任务是否不限时，不限时的串行任务无需超时中断，可在当前线程中直接执行
+     *
+     * @param syncTaskExecutor  同步任务执行器
+     * @param containerDeadline 容器截止时间，为空表示不限制
+     * @return 编排器、容器与任务均未设置超时时间时返回true
+     */
+    private boolean isUntimed(SyncTaskExecutor<?, ?> syncTaskExecutor, Long containerDeadline) {
+
+        TaskParam<?> param = syncTaskExecutor.getParam();
+
+        return deadline == null && containerDeadline == null && param.getTimeout() == null && param.getDeadline() == null;
     }
 
     /**
-     * 检查结果集的任务异常
+     * 检查任务异常，用于异步回调
      *
-     * @param taskResultMap 任务执行结果
+     * @param taskResults 任务执行结果
+     * @param from        检查的起始位置
+     * @param to          检查的结束位置，不包含
+     * @return 任务执行结果
+     */
+    private <K, T> TaskResults<K, T> collectResults(TaskResults<K, T> taskResults, int from, int to) {
+
+        try {
+
+            checkTaskExceptions(taskResults, from, to);
+
+        } catch (TaskExecuteException e) {
+
+            throw new CompletionException(e);
+        }
+
+        return taskResults;
+    }
+
+    /**
+     * 检查指定位置范围内的任务异常
+     *
+     * @param taskResults 任务执行结果
+     * @param from        检查的起始位置
+     * @param to          检查的结束位置，不包含
      * @throws TaskExecuteException 任务执行异常信息
      */
-    private <K, T> void checkTaskExceptions(Map<TaskParam<K>, TaskResult<T>> taskResultMap) throws TaskExecuteException {
+    private <K, T> void checkTaskExceptions(TaskResults<K, T> taskResults, int from, int to) throws TaskExecuteException {
         List<ChildTaskException> taskExceptions = null;
 
-        for (Map.Entry<TaskParam<K>, TaskResult<T>> entry : taskResultMap.entrySet()) {
-            TaskParam<K> taskParam = entry.getKey();
-            TaskResult<T> taskResult = entry.getValue();
+        for (int i = from; i < to; i++) {
+            TaskParam<K> taskParam = taskResults.getParam(i);
+            TaskResult<T> taskResult = taskResults.get(i);
 
-            if (taskResult.isException()) {
+            if (taskResult != null && taskResult.isException()) {
 
                 if (taskExceptions == null) {
 
@@ -225,41 +605,59 @@ public class TaskArranger {
     }
 
     /**
-     * 单个执行器执行
-     *
-     * @param syncTaskExecutor 同步任务执行器
-     * @return 执行结果
+     * 编排器中的任务总数
      */
-    private <K, T> Map<TaskParam<K>, TaskResult<T>> singleExecute(SyncTaskExecutor<K, T> syncTaskExecutor) {
+    private int taskCount() {
 
-        Map<TaskParam<K>, TaskResult<T>> retMap = new ConcurrentHashMap<>(20);
+        int taskCount = 0;
 
-        TaskParam<K> param = syncTaskExecutor.getParam();
+        for (TaskContainer taskContainer : taskContainers) {
 
-        long startTime = System.currentTimeMillis();
+            taskCount += taskContainer.getSyncTaskExecutors().size();
+        }
 
-        TaskResult<T> ret = null;
+        return taskCount;
+    }
 
-        try {
+    /**
+     * 构建并行容器的提交选项
+     *
+     * @param taskContainer     任务容器
+     * @param containerDeadline 容器截止时间，为空表示不限制
+     * @return 提交选项
+     */
+    private SubmitOptions submitOptions(TaskContainer<?, ?> taskContainer, Long containerDeadline) {
 
-            ret = syncTaskExecutor.execute(param);
-            retMap.put(param, ret);
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setTimeout(remaining(containerDeadline));
+        submitOptions.setFailFast(taskContainer.isFailFast());
+        submitOptions.setCallerRuns(taskContainer.isCallerRuns());
+        submitOptions.setAdmission(taskContainer.getAdmission());
+        submitOptions.setAdmissionTimeout(taskContainer.getAdmissionTimeout());
 
-        } catch (Throwable e) {
+        return submitOptions;
+    }
 
-            log.error("任务器执行异常,执行器名称:[{}],任务参数信息:[{}]", syncTaskExecutor.getClass().getName(), JsonUtil.toJson(param), e);
-            ret = new TaskResult<>();
-            ret.setException(true);
-            ret.setExceptionMsg(e);
-            retMap.put(param, ret);
+    /**
+     * 根据超时时间计算截止时间
+     *
+     * @param timeout 超时时间，单位毫秒，为空表示不限制
+     * @return 截止时间，为空表示不限制
+     */
+    private static Long deadlineOf(Long timeout) {
+        return timeout == null ? null : System.currentTimeMillis() + timeout;
+    }
 
-        } finally {
+    /**
+     * 计算编排器截止时间与容器截止时间中较早者的剩余时间
+     *
+     * @param containerDeadline 容器截止时间，为空表示不限制
+     * @return 剩余时间，单位毫秒，为空表示不限制
+     */
+    private Long remaining(Long containerDeadline) {
 
-            if (ret != null) {
-                ret.setResponseTime(System.currentTimeMillis() - startTime);
-            }
-        }
+        Long earliest = TaskExecuteManager.minTimeout(deadline, containerDeadline);
 
-        return retMap;
+        return earliest == null ? null : earliest - System.currentTimeMillis();
     }
 }
@@ -1,5 +1,6 @@
 package com.tj.core.utils.concurrent.threadarrange;
 
+import com.tj.core.utils.concurrent.executor.AdmissionPolicy;
 import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
 import lombok.Data;
 
@@ -16,9 +17,9 @@ import java.util.concurrent.Executor;
 public class TaskContainer<K, T> {
 
     /**
-     * 同步任务执行器
+     * 同步任务执行器，参数与结果类型不同的执行器可放在同一容器中
      */
-    private List<SyncTaskExecutor<K, T>> syncTaskExecutors;
+    private List<? extends SyncTaskExecutor<? extends K, ? extends T>> syncTaskExecutors;
 
     /**
      * 执行器类型
@@ -30,4 +31,38 @@ public class TaskContainer<K, T> {
      */
     private Executor threadPool;
 
+    /**
+     * 容器超时时间，单位毫秒，从容器开始执行时计算，依赖图模式下从依赖图开始执行时计算，为空表示不限制
+     */
+    private Long timeout;
+
+    /**
+     * 是否快速失败，仅对并行容器生效，开启后任一任务执行异常时取消其余未完成的任务并立即返回
+     */
+    private boolean failFast;
+
+    /**
+     * 调用线程是否参与执行，仅对同步执行的并行容器生效
+     */
+    private boolean callerRuns;
+
+    /**
+     * 线程池拒绝任务时的准入策略，仅对并行容器生效
+     */
+    private AdmissionPolicy admission = AdmissionPolicy.REJECT;
+
+    /**
+     * 准入等待时间，单位毫秒，仅对{@link AdmissionPolicy#BLOCK}生效，为空表示等待至任务超时
+     */
+    private Long admissionTimeout;
+
+    /**
+     * 获取同步任务执行器，执行器只以自身的参数执行，可按容器的参数与结果类型统一处理
+     *
+     * @return 同步任务执行器
+     */
+    @SuppressWarnings("unchecked")
+    public List<SyncTaskExecutor<K, T>> getSyncTaskExecutors() {
+        return (List<SyncTaskExecutor<K, T>>) (List<?>) syncTaskExecutors;
+    }
 }
@@ -0,0 +1,288 @@
+package com.tj.core.utils.concurrent.threadarrange;
+
+import com.tj.core.utils.concurrent.executor.SyncTaskExecutor;
+import com.tj.core.utils.concurrent.executor.TaskExecuteManager;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import com.tj.core.utils.concurrent.param.TaskResults;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 任务依赖图，每个任务在其依赖的任务全部完成后立即调度
+ *
+ * @author tangjie
+ * @date 2022/5/20
+ */
+class TaskGraph<K, T> {
+
+    /**
+     * 图节点，按任务Id索引
+     */
+    private final Map<Integer, Node<K, T>> nodes = new LinkedHashMap<>();
+
+    /**
+     * 编排器截止时间，为空表示不限制
+     */
+    private Long deadline;
+
+    /**
+     * 根据任务容器构建依赖图
+     *
+     * @param taskContainers 任务容器
+     * @throws IllegalArgumentException 依赖的任务不存在或依赖存在环
+     */
+    TaskGraph(List<TaskContainer<K, T>> taskContainers) {
+
+        for (TaskContainer<K, T> taskContainer : taskContainers) {
+
+            for (SyncTaskExecutor<K, T> syncTaskExecutor : taskContainer.getSyncTaskExecutors()) {
+
+                nodes.put(syncTaskExecutor.getParam().getId(), new Node<>(nodes.size(), syncTaskExecutor, taskContainer.getThreadPool(), taskContainer.getTimeout()));
+            }
+        }
+
+        for (Node<K, T> node : nodes.values()) {
+
+            for (Integer dependency : node.syncTaskExecutor.getDependencies()) {
+
+                Node<K, T> parent = nodes.get(dependency);
+
+                if (parent == null) {
+
+                    throw new IllegalArgumentException(String.format("任务[%s]依赖的任务[%s]不存在", node.getId(), dependency));
+                }
+
+                if (parent == node) {
+
+                    throw new IllegalArgumentException(String.format("任务[%s]不能依赖自身", node.getId()));
+                }
+
+                parent.dependents.add(node);
+                node.pending.incrementAndGet();
+            }
+        }
+
+        checkCycle();
+    }
+
+    /**
+     * 拓扑排序检查依赖是否存在环
+     */
+    private void checkCycle() {
+
+        Map<Integer, Integer> inDegrees = new LinkedHashMap<>(nodes.size() * 2);
+        Deque<Node<K, T>> readyNodes = new ArrayDeque<>();
+
+        for (Node<K, T> node : nodes.values()) {
+
+            inDegrees.put(node.getId(), node.pending.get());
+
+            if (node.pending.get() == 0) {
+
+                readyNodes.add(node);
+            }
+        }
+
+        while (!readyNodes.isEmpty()) {
+
+            Node<K, T> node = readyNodes.poll();
+            inDegrees.remove(node.getId());
+
+            for (Node<K, T> dependent : node.dependents) {
+
+                if (inDegrees.merge(dependent.getId(), -1, Integer::sum) == 0) {
+
+                    readyNodes.add(dependent);
+                }
+            }
+        }
+
+        if (!inDegrees.isEmpty()) {
+
+            throw new IllegalArgumentException(String.format("任务依赖存在环%s", inDegrees.keySet()));
+        }
+    }
+
+    /**
+     * 执行依赖图中的全部任务，依赖任务执行异常或超时时其后续任务不再执行
+     * <p>
+     * 容器超时时间从依赖图开始执行时计算，作用于容器内的每个任务
+     *
+     * @param deadline 截止时间，单位毫秒，到期后执行中的任务被中断，未结束的任务均返回超时结果，调用线程最迟在截止时间返回
+     * @return 执行结果，按任务添加顺序存放，因依赖失败未执行的任务返回跳过结果
+     * @throws InterruptedException 线程中断异常
+     */
+    TaskResults<K, T> execute(Long deadline) throws InterruptedException {
+
+        this.deadline = deadline;
+
+        long now = System.currentTimeMillis();
+
+        for (Node<K, T> node : nodes.values()) {
+
+            node.deadline = TaskExecuteManager.minTimeout(deadline, node.containerTimeout == null ? null : now + node.containerTimeout);
+        }
+
+        CountDownLatch countDownLatch = new CountDownLatch(nodes.size());
+
+        List<Node<K, T>> rootNodes = nodes.values().stream().filter(x -> x.pending.get() == 0).collect(Collectors.toList());
+
+        for (Node<K, T> node : rootNodes) {
+
+            dispatch(node, countDownLatch);
+        }
+
+        if (deadline == null) {
+
+            countDownLatch.await();
+
+        } else if (!countDownLatch.await(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+            // 到期仍未结束的任务以超时结果返回，此后结束的任务不再写入结果
+            for (Node<K, T> node : nodes.values()) {
+
+                TaskResult<T> taskResult = new TaskResult<>();
+                taskResult.setTimeout(true);
+                node.result.compareAndSet(null, taskResult);
+            }
+        }
+
+        // 结果仅由调用线程写入，任务结果通过计数器或节点结果的原子引用对调用线程可见
+        TaskResults.Builder<K, T> taskResults = new TaskResults.Builder<>(nodes.size());
+
+        for (Node<K, T> node : nodes.values()) {
+
+            taskResults.set(node.index, node.syncTaskExecutor.getParam(), node.result.get());
+        }
+
+        return taskResults.build();
+    }
+
+    /**
+     * 将任务提交至所属容器的线程池
+     */
+    private void dispatch(Node<K, T> node, CountDownLatch countDownLatch) {
+
+        try {
+
+            // 任务在所属容器的线程池中执行，超时后立即返回超时结果
+            Long timeout = node.deadline == null ? null : node.deadline - System.currentTimeMillis();
+
+            TaskExecuteManager.submitWithTimeout(node.threadPool, node.syncTaskExecutor, timeout).thenAccept(taskResult -> {
+
+                node.result.compareAndSet(null, taskResult);
+
+                // 超时的任务没有数据，与执行异常一样不再执行其后续任务
+                complete(node, !taskResult.isException() && !taskResult.isTimeout(), countDownLatch);
+            });
+
+        } catch (RuntimeException e) {
+
+            TaskResult<T> taskResult = new TaskResult<>();
+            taskResult.setRejected(e instanceof RejectedExecutionException);
+            taskResult.setException(true);
+            taskResult.setExceptionMsg(e);
+            node.result.compareAndSet(null, taskResult);
+
+            complete(node, false, countDownLatch);
+        }
+    }
+
+    /**
+     * 任务完成后通知其后续任务，后续任务的依赖全部完成时立即调度
+     */
+    private void complete(Node<K, T> node, boolean success, CountDownLatch countDownLatch) {
+
+        for (Node<K, T> dependent : node.dependents) {
+
+            if (!success) {
+
+                dependent.skipped = true;
+            }
+
+            if (dependent.pending.decrementAndGet() == 0) {
+
+                if (dependent.skipped) {
+
+                    TaskResult<T> taskResult = new TaskResult<>();
+                    taskResult.setSkipped(true);
+                    dependent.result.compareAndSet(null, taskResult);
+
+                    complete(dependent, false, countDownLatch);
+                } else {
+
+                    dispatch(dependent, countDownLatch);
+                }
+            }
+        }
+
+        countDownLatch.countDown();
+    }
+
+    /**
+     * 图节点
+     */
+    private static class Node<K, T> {
+
+        /**
+         * 任务在编排器中的位置
+         */
+        private final int index;
+
+        private final SyncTaskExecutor<K, T> syncTaskExecutor;
+
+        private final Executor threadPool;
+
+        /**
+         * 依赖当前任务的后续任务
+         */
+        private final List<Node<K, T>> dependents = new ArrayList<>();
+
+        /**
+         * 尚未完成的依赖数量
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * 存在执行失败的依赖时跳过执行
+         */
+        private volatile boolean skipped;
+
+        /**
+         * 任务结果，先写入者生效，截止时间到期后由调用线程写入超时结果
+         */
+        private final AtomicReference<TaskResult<T>> result = new AtomicReference<>();
+
+        /**
+         * 所属容器的超时时间，单位毫秒
+         */
+        private final Long containerTimeout;
+
+        /**
+         * 任务截止时间，取编排器与容器截止时间中较早者，为空表示不限制
+         */
+        private Long deadline;
+
+        Node(int index, SyncTaskExecutor<K, T> syncTaskExecutor, Executor threadPool, Long containerTimeout) {
+            this.index = index;
+            this.syncTaskExecutor = syncTaskExecutor;
+            this.threadPool = threadPool;
+            this.containerTimeout = containerTimeout;
+        }
+
+        Integer getId() {
+            return syncTaskExecutor.getParam().getId();
+        }
+    }
+}
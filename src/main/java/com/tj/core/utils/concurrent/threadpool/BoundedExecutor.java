@@ -0,0 +1,19 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 可获取剩余容量的执行器，用于整批提交前检查能否接收全部任务
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public interface BoundedExecutor extends Executor {
+
+    /**
+     * 获取当前还可接收的任务数，并发提交时仅为近似值
+     *
+     * @return 剩余容量
+     */
+    int getRemainingCapacity();
+}
@@ -1,5 +1,6 @@
 package com.tj.core.utils.concurrent.threadpool;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -49,6 +50,179 @@ public class CommonThreadPoolExecutors {
                 new LinkedBlockingDeque<>(blockQueueSize), new DefaultThreadFactory(poolName), new ThreadPoolExecutor.AbortPolicy());
     }
 
+    /**
+     * 创建一个可观测的线程池并注册JMX MBean
+     *
+     * @param poolName       线程池名称
+     * @param corePoolSize   核心线程数
+     * @param maxPoolSize    最大线程数
+     * @param blockQueueSize 阻塞队列大小
+     * @return 记录排队时间、队列深度峰值与拒绝次数的线程池
+     */
+    public static InstrumentedThreadPoolExecutor newInstrumentedThreadPool(String poolName, int corePoolSize, int maxPoolSize, int blockQueueSize) {
+
+        if (poolName == null || corePoolSize <= 0 || maxPoolSize < corePoolSize || blockQueueSize <= 0) {
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        return new InstrumentedThreadPoolExecutor(poolName, corePoolSize, maxPoolSize, 10, TimeUnit.SECONDS,
+                new LinkedBlockingDeque<>(blockQueueSize), new DefaultThreadFactory(poolName), new ThreadPoolExecutor.AbortPolicy()).registerMBean();
+    }
+
+    /**
+     * 创建一个优先创建线程的弹性线程池，没有空闲线程时立即创建线程直至最大线程数，之后任务才进入队列
+     *
+     * @param poolName       线程池名称
+     * @param corePoolSize   核心线程数
+     * @param maxPoolSize    最大线程数
+     * @param blockQueueSize 阻塞队列大小
+     * @return 弹性线程池
+     */
+    public static ElasticThreadPoolExecutor newElasticThreadPool(String poolName, int corePoolSize, int maxPoolSize, int blockQueueSize) {
+        return newElasticThreadPool(poolName, corePoolSize, maxPoolSize, blockQueueSize, 0);
+    }
+
+    /**
+     * 创建一个按排队时间目标扩缩的弹性线程池，队首任务排队超过目标时立即增加线程，空闲后回落
+     *
+     * @param poolName        线程池名称
+     * @param corePoolSize    核心线程数
+     * @param maxPoolSize     最大线程数
+     * @param blockQueueSize  阻塞队列大小
+     * @param queueWaitTarget 排队时间目标，单位毫秒，为0时没有空闲线程即创建线程
+     * @return 弹性线程池
+     */
+    public static ElasticThreadPoolExecutor newElasticThreadPool(String poolName, int corePoolSize, int maxPoolSize, int blockQueueSize, long queueWaitTarget) {
+
+        if (poolName == null || corePoolSize < 0 || maxPoolSize <= 0 || maxPoolSize < corePoolSize || blockQueueSize <= 0 || queueWaitTarget < 0) {
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        ElasticThreadPoolExecutor executor = new ElasticThreadPoolExecutor(poolName, corePoolSize, maxPoolSize, 10, TimeUnit.SECONDS,
+                blockQueueSize, queueWaitTarget, new DefaultThreadFactory(poolName), new ThreadPoolExecutor.AbortPolicy());
+        executor.registerMBean();
+
+        return executor;
+    }
+
+    /**
+     * 创建一个按优先级与截止时间调度的线程池，同一优先级内截止时间最早的任务最先执行，出队时已过截止时间的任务不再执行
+     *
+     * @param poolName       线程池名称
+     * @param poolSize       线程数
+     * @param blockQueueSize 阻塞队列大小
+     * @return 优先级线程池
+     */
+    public static PriorityThreadPoolExecutor newPriorityThreadPool(String poolName, int poolSize, int blockQueueSize) {
+
+        if (poolName == null || poolSize <= 0 || blockQueueSize <= 0) {
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        return new PriorityThreadPoolExecutor(poolSize, blockQueueSize, new DefaultThreadFactory(poolName), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 创建一个按租户公平调度的执行器，通过{@link FairQueueExecutor#forTenant(Object, int)}获取各租户的执行器
+     *
+     * @param poolName       线程池名称
+     * @param poolSize       线程数
+     * @param blockQueueSize 全部租户排队任务总数上限
+     * @return 公平队列执行器
+     */
+    public static FairQueueExecutor newFairQueueExecutor(String poolName, int poolSize, int blockQueueSize) {
+
+        if (poolName == null || poolSize <= 0 || blockQueueSize <= 0) {
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        // 转交至线程池的任务数不超过线程数，线程池队列无需限制容量
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DefaultThreadFactory(poolName), new ThreadPoolExecutor.AbortPolicy());
+
+        return new FairQueueExecutor(executor, poolSize, blockQueueSize);
+    }
+
+    /**
+     * 创建一个每个任务一个虚拟线程的执行器，不限制并发数
+     *
+     * @param poolName 线程池名称
+     * @return 虚拟线程执行器，运行环境不支持虚拟线程时返回无界的缓存线程池
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String poolName) {
+        return newVirtualThreadPerTaskExecutor(poolName, 0);
+    }
+
+    /**
+     * 创建一个每个任务一个虚拟线程的执行器
+     * <p>
+     * 虚拟线程需要Java 21及以上的运行环境，通过反射创建以保持Java 8兼容；
+     * 运行环境不支持时退化为平台线程池，最大线程数即最大并发数，超出的任务在队列中等待
+     *
+     * @param poolName       线程池名称
+     * @param maxConcurrency 最大并发数，小于等于0时不限制
+     * @return 虚拟线程执行器
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String poolName, int maxConcurrency) {
+
+        if (poolName == null) {
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        String namePrefix = DefaultThreadFactory.namePrefix(poolName);
+        ThreadFactory virtualThreadFactory = virtualThreadFactory(namePrefix);
+
+        if (virtualThreadFactory != null) {
+
+            return new ThreadPerTaskExecutor(virtualThreadFactory, maxConcurrency);
+        }
+
+        if (maxConcurrency <= 0) {
+
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), new DefaultThreadFactory(false, namePrefix), new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DefaultThreadFactory(false, namePrefix), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return 是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return virtualThreadFactory("probe-") != null;
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂，等价于Thread.ofVirtual().name(namePrefix, 1).factory()
+     *
+     * @param namePrefix 线程名前缀
+     * @return 虚拟线程工厂，不支持时返回空
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+
+        try {
+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            Method factory = builderClass.getMethod("factory");
+
+            return (ThreadFactory) factory.invoke(name.invoke(builder, namePrefix, 1L));
+
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 21以下不存在该方法，Java 19/20未开启预览特性时抛出UnsupportedOperationException
+            return null;
+        }
+    }
+
     /**
      * The default thread factory
      */
@@ -57,12 +231,29 @@ public class CommonThreadPoolExecutors {
         private final ThreadGroup group;
         private final AtomicInteger threadNumber = new AtomicInteger(1);
         private final String namePrefix;
+        private final boolean daemon;
 
         DefaultThreadFactory(String poolName) {
+            this(poolName, false);
+        }
+
+        DefaultThreadFactory(String poolName, boolean daemon) {
+            this(daemon, namePrefix(poolName));
+        }
+
+        /**
+         * 使用已生成的线程名前缀，避免重复占用线程池编号
+         */
+        private DefaultThreadFactory(boolean daemon, String namePrefix) {
             SecurityManager s = System.getSecurityManager();
             group = (s != null) ? s.getThreadGroup() :
                     Thread.currentThread().getThreadGroup();
-            namePrefix = poolName + "-pool-" +
+            this.namePrefix = namePrefix;
+            this.daemon = daemon;
+        }
+
+        static String namePrefix(String poolName) {
+            return poolName + "-pool-" +
                     POOL_NUMBER.getAndIncrement() +
                     "-thread-";
         }
@@ -72,8 +263,8 @@ public class CommonThreadPoolExecutors {
             Thread t = new Thread(group, r,
                     namePrefix + threadNumber.getAndIncrement(),
                     0);
-            if (t.isDaemon()) {
-                t.setDaemon(false);
+            if (t.isDaemon() != daemon) {
+                t.setDaemon(daemon);
             }
             if (t.getPriority() != Thread.NORM_PRIORITY) {
                 t.setPriority(Thread.NORM_PRIORITY);
@@ -0,0 +1,73 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 弹性线程池的任务队列，没有空闲线程且线程数未达上限时拒绝入队，使线程池优先创建线程
+ * <p>
+ * 设置了排队时间目标时，队首任务的排队时间未超过目标前仍允许入队，短暂的突发流量不会创建线程
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+class ElasticTaskQueue extends LinkedBlockingQueue<Runnable> {
+
+    ElasticTaskQueue(int capacity) {
+        super(capacity);
+    }
+
+    private transient volatile ElasticThreadPoolExecutor executor;
+
+    void setExecutor(ElasticThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+
+        ElasticThreadPoolExecutor current = executor;
+
+        if (current == null || current.isShutdown()) {
+
+            return super.offer(task);
+        }
+
+        int poolSize = current.getPoolSize();
+
+        // 存在空闲线程或线程数已达上限时入队
+        if (current.getSubmittedCount() <= poolSize || poolSize >= current.getMaximumPoolSize()) {
+
+            return super.offer(task);
+        }
+
+        if (current.getQueueWaitTargetNanos() > 0 && headWaitNanos() < current.getQueueWaitTargetNanos()) {
+
+            return super.offer(task);
+        }
+
+        return false;
+    }
+
+    /**
+     * 线程数已达上限导致创建线程失败时强制入队
+     *
+     * @param task 任务
+     * @return 队列未满时返回true
+     */
+    boolean force(Runnable task) {
+        return super.offer(task);
+    }
+
+    /**
+     * 获取队首任务的排队时间
+     *
+     * @return 排队时间，单位纳秒，队列为空时返回0
+     */
+    long headWaitNanos() {
+
+        Runnable head = peek();
+        Long enqueueNanos = head == null ? null : InstrumentedThreadPoolExecutor.enqueueNanosOf(head);
+
+        return enqueueNanos == null ? 0 : System.nanoTime() - enqueueNanos;
+    }
+}
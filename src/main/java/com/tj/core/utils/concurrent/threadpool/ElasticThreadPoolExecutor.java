@@ -0,0 +1,213 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 弹性线程池，优先创建线程而不是排队，线程数达到最大线程数后任务才进入队列
+ * <p>
+ * 设置排队时间目标时，队首任务排队超过目标后立即增加线程，队列清空且存在空闲线程时逐步回落至配置的核心线程数；
+ * 超出核心线程数的线程空闲超过存活时间后回收。核心线程数与最大线程数可在运行期间通过{@link #resize(int, int)}调整
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class ElasticThreadPoolExecutor extends InstrumentedThreadPoolExecutor {
+
+    /**
+     * @param poolName        线程池名称
+     * @param corePoolSize    核心线程数
+     * @param maximumPoolSize 最大线程数
+     * @param keepAliveTime   超出核心线程数的线程空闲存活时间
+     * @param unit            时间单位
+     * @param queueCapacity   队列容量
+     * @param queueWaitTarget 排队时间目标，单位毫秒，为0时没有空闲线程即创建线程
+     * @param threadFactory   线程工厂
+     * @param handler         队列已满时的拒绝策略
+     */
+    public ElasticThreadPoolExecutor(String poolName, int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, int queueCapacity,
+                                     long queueWaitTarget, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+
+        super(poolName, corePoolSize, maximumPoolSize, keepAliveTime, unit, new ElasticTaskQueue(queueCapacity), threadFactory, handler);
+
+        if (queueWaitTarget < 0) {
+
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        this.taskQueue = (ElasticTaskQueue) getQueue();
+        this.baseCorePoolSize = corePoolSize;
+        this.queueWaitTargetNanos = TimeUnit.MILLISECONDS.toNanos(queueWaitTarget);
+
+        taskQueue.setExecutor(this);
+
+        if (queueWaitTarget > 0) {
+
+            scheduleControl();
+        }
+    }
+
+    private final ElasticTaskQueue taskQueue;
+
+    /**
+     * 已提交且尚未执行完成的任务数，包含排队中的任务
+     */
+    private final AtomicInteger submittedCount = new AtomicInteger();
+
+    /**
+     * 配置的核心线程数，排队时间超过目标时核心线程数临时上调，空闲后回落至该值
+     */
+    private volatile int baseCorePoolSize;
+
+    private final long queueWaitTargetNanos;
+
+    @Override
+    public void execute(Runnable command) {
+
+        submittedCount.incrementAndGet();
+
+        try {
+
+            super.execute(command);
+
+        } catch (RuntimeException | Error e) {
+
+            submittedCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+
+        submittedCount.decrementAndGet();
+        super.afterExecute(r, t);
+    }
+
+    /**
+     * 线程数已达上限时强制入队，队列已满或线程池已关闭时按拒绝策略处理
+     */
+    @Override
+    protected boolean requeue(Runnable task) {
+        return !isShutdown() && taskQueue.force(task);
+    }
+
+    /**
+     * 拒绝策略丢弃或由调用线程执行完成的任务不再计入已提交任务数，拒绝策略抛出异常时由{@link #execute(Runnable)}扣减
+     */
+    @Override
+    protected void rejectionHandled(Runnable task) {
+        submittedCount.decrementAndGet();
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+
+        boolean removed = super.remove(task);
+
+        if (removed) {
+
+            submittedCount.decrementAndGet();
+        }
+
+        return removed;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+
+        List<Runnable> tasks = super.shutdownNow();
+        submittedCount.addAndGet(-tasks.size());
+
+        return tasks;
+    }
+
+    /**
+     * 运行期间调整线程数，减少的线程在空闲时回收
+     *
+     * @param corePoolSize    核心线程数
+     * @param maximumPoolSize 最大线程数
+     */
+    public synchronized void resize(int corePoolSize, int maximumPoolSize) {
+
+        if (corePoolSize < 0 || maximumPoolSize <= 0 || maximumPoolSize < corePoolSize) {
+
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        // 保证调整过程中核心线程数始终不大于最大线程数
+        if (maximumPoolSize >= getCorePoolSize()) {
+
+            setMaximumPoolSize(maximumPoolSize);
+            setCorePoolSize(corePoolSize);
+        } else {
+
+            setCorePoolSize(corePoolSize);
+            setMaximumPoolSize(maximumPoolSize);
+        }
+
+        baseCorePoolSize = corePoolSize;
+    }
+
+    /**
+     * 按排队时间调整核心线程数，线程池关闭后停止调度
+     */
+    private void scheduleControl() {
+
+        long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(queueWaitTargetNanos) / 2);
+
+        try {
+
+            SharedTimer.schedule(() -> {
+
+                if (isShutdown()) {
+
+                    return;
+                }
+
+                control();
+                scheduleControl();
+
+            }, period, TimeUnit.MILLISECONDS);
+
+        } catch (RejectedExecutionException e) {
+            // 定时器已关闭时不再调整
+        }
+    }
+
+    private synchronized void control() {
+
+        int corePoolSize = getCorePoolSize();
+
+        if (taskQueue.headWaitNanos() >= queueWaitTargetNanos) {
+            // 上调核心线程数时线程池立即创建线程执行排队中的任务
+            int newCorePoolSize = Math.min(getMaximumPoolSize(), Math.max(corePoolSize, getPoolSize()) + 1);
+
+            if (newCorePoolSize > corePoolSize) {
+
+                setCorePoolSize(newCorePoolSize);
+            }
+
+        } else if (corePoolSize > baseCorePoolSize && taskQueue.isEmpty() && submittedCount.get() < getPoolSize()) {
+
+            setCorePoolSize(corePoolSize - 1);
+        }
+    }
+
+    /**
+     * 获取已提交且尚未执行完成的任务数
+     *
+     * @return 任务数
+     */
+    public int getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    long getQueueWaitTargetNanos() {
+        return queueWaitTargetNanos;
+    }
+}
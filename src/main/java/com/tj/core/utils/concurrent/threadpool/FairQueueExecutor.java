@@ -0,0 +1,497 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公平队列执行器，为每个租户维护独立的子队列，按权重以差额轮询方式将任务转交至共享线程池
+ * <p>
+ * 转交至线程池的任务数不超过最大并发数，其余任务在各自租户的子队列中等待，
+ * 某个租户一次提交大量任务时只占用与其权重相当的份额，不会阻塞其他租户的任务；
+ * 租户可以是调用方、接口或单次编排，子队列为空时租户状态即被清理；
+ * 排队中的任务不支持移除，已取消的任务转交后立即结束；线程池拒绝且没有执行中的任务时，由共享定时器稍后在线程池中重新转交
+ * <p>
+ * 转交的任务经过包装，线程池中按原任务移除（如{@link java.util.concurrent.ThreadPoolExecutor#remove(Runnable)}）不会生效；
+ * 包装保留{@link PrioritizedTask}的优先级与截止时间，可配合{@link PriorityThreadPoolExecutor}使用；
+ * 线程池不能使用CallerRunsPolicy拒绝策略，否则被拒绝的任务会在提交线程或定时线程中执行
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class FairQueueExecutor implements BoundedExecutor {
+
+    /**
+     * 默认租户
+     */
+    private static final Object DEFAULT_TENANT = new Object();
+
+    /**
+     * 线程池拒绝后重新转交的延迟，单位毫秒
+     */
+    private static final long RETRY_DELAY = 10;
+
+    /**
+     * @param delegate      共享线程池
+     * @param maxInFlight   转交至线程池且未完成的最大任务数，通常与线程池线程数一致
+     * @param queueCapacity 全部子队列的任务总数上限，超出时拒绝提交
+     */
+    public FairQueueExecutor(Executor delegate, int maxInFlight, int queueCapacity) {
+
+        if (delegate == null || maxInFlight <= 0 || queueCapacity <= 0) {
+
+            throw new IllegalArgumentException("公平队列执行器参数配置错误");
+        }
+
+        if (SharedTimer.runsRejectedInCaller(delegate)) {
+
+            throw new IllegalArgumentException("公平队列执行器的线程池不能使用CallerRunsPolicy拒绝策略");
+        }
+
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+    }
+
+    private final Executor delegate;
+
+    private final int maxInFlight;
+
+    private final int queueCapacity;
+
+    /**
+     * 存在排队任务的租户
+     */
+    private final Map<Object, Tenant> tenants = new HashMap<>();
+
+    /**
+     * 轮询中的租户，队首租户在差额用尽或子队列为空后移至队尾或移出
+     */
+    private final Deque<Tenant> activeTenants = new ArrayDeque<>();
+
+    private int inFlight;
+
+    private int queued;
+
+    /**
+     * 是否已安排重新转交
+     */
+    private boolean retryScheduled;
+
+    /**
+     * 以默认租户提交任务，权重为1
+     *
+     * @param command 任务
+     */
+    @Override
+    public void execute(Runnable command) {
+        enqueue(DEFAULT_TENANT, 1, command);
+    }
+
+    /**
+     * 获取租户的执行器，可作为任务容器的线程池使用
+     *
+     * @param tenant 租户标识，需正确实现equals和hashCode
+     * @param weight 权重，每轮可转交的任务数
+     * @return 以该租户提交任务的执行器
+     */
+    public BoundedExecutor forTenant(Object tenant, int weight) {
+
+        if (tenant == null || weight <= 0) {
+
+            throw new IllegalArgumentException("公平队列执行器参数配置错误");
+        }
+
+        return new TenantExecutor(tenant, weight);
+    }
+
+    private void enqueue(Object key, int weight, Runnable command) {
+
+        if (command == null) {
+
+            throw new NullPointerException();
+        }
+
+        synchronized (this) {
+
+            if (queued >= queueCapacity) {
+
+                throw new RejectedExecutionException("公平队列已满");
+            }
+
+            Tenant tenant = tenants.get(key);
+
+            if (tenant == null) {
+
+                tenant = new Tenant(key, weight);
+                tenants.put(key, tenant);
+                activeTenants.addLast(tenant);
+            }
+
+            tenant.tasks.addLast(command);
+            queued++;
+        }
+
+        try {
+
+            drain();
+
+        } catch (RejectedExecutionException e) {
+            // 提交的任务仍在排队时撤回并由提交方处理拒绝，其他排队任务由定时重试转交
+            if (withdraw(key, command)) {
+
+                throw e;
+            }
+        }
+    }
+
+    private synchronized boolean withdraw(Object key, Runnable command) {
+
+        Tenant tenant = tenants.get(key);
+
+        if (tenant == null || !tenant.tasks.removeLastOccurrence(command)) {
+
+            return false;
+        }
+
+        queued--;
+
+        if (tenant.tasks.isEmpty()) {
+
+            activeTenants.remove(tenant);
+            tenants.remove(key);
+        }
+
+        return true;
+    }
+
+    /**
+     * 按差额轮询选出可转交的任务并转交至线程池，转交在锁外进行
+     */
+    private void drain() {
+
+        List<Dispatch> dispatches = new ArrayList<>();
+
+        synchronized (this) {
+
+            Dispatch dispatch;
+
+            while ((dispatch = next()) != null) {
+
+                dispatches.add(dispatch);
+            }
+        }
+
+        for (int i = 0; i < dispatches.size(); i++) {
+
+            Dispatch dispatch = dispatches.get(i);
+
+            try {
+
+                delegate.execute(dispatch);
+
+            } catch (RejectedExecutionException e) {
+
+                boolean idle;
+
+                // 被拒绝的任务放回租户子队列队首，待其他任务完成后重新转交
+                synchronized (this) {
+
+                    for (int j = dispatches.size() - 1; j >= i; j--) {
+
+                        requeue(dispatches.get(j));
+                    }
+
+                    idle = inFlight == 0;
+                }
+
+                // 没有执行中的任务时不会再由任务完成触发转交，改由定时器重试
+                if (idle) {
+
+                    scheduleRetry();
+                    throw e;
+                }
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按差额轮询选出下一个可转交的任务，调用方需持有锁
+     *
+     * @return 可转交的任务，已达最大并发数或没有排队任务时为空
+     */
+    private Dispatch next() {
+
+        if (inFlight >= maxInFlight || activeTenants.isEmpty()) {
+
+            return null;
+        }
+
+        Tenant tenant = activeTenants.peekFirst();
+
+        if (tenant.deficit <= 0) {
+
+            tenant.deficit += tenant.weight;
+        }
+
+        Dispatch dispatch = new Dispatch(tenant, tenant.tasks.pollFirst());
+        tenant.deficit--;
+        inFlight++;
+        queued--;
+
+        if (tenant.tasks.isEmpty()) {
+
+            activeTenants.pollFirst();
+            tenants.remove(tenant.key);
+            tenant.deficit = 0;
+
+        } else if (tenant.deficit <= 0) {
+
+            activeTenants.addLast(activeTenants.pollFirst());
+        }
+
+        return dispatch;
+    }
+
+    private void requeue(Dispatch dispatch) {
+
+        Tenant tenant = tenants.get(dispatch.tenant.key);
+
+        if (tenant == null) {
+
+            tenant = dispatch.tenant;
+            tenants.put(tenant.key, tenant);
+            activeTenants.addFirst(tenant);
+        }
+
+        tenant.tasks.addFirst(dispatch.task);
+        inFlight--;
+        queued++;
+    }
+
+    /**
+     * 稍后在线程池中重新转交排队中的任务，定时线程只负责转交重试操作，线程池已关闭或没有排队任务时不再重试
+     */
+    private void scheduleRetry() {
+
+        if (delegate instanceof ExecutorService && ((ExecutorService) delegate).isShutdown()) {
+
+            return;
+        }
+
+        synchronized (this) {
+
+            if (retryScheduled || queued == 0) {
+
+                return;
+            }
+
+            retryScheduled = true;
+        }
+
+        SharedTimer.schedule(() -> {
+
+            try {
+
+                SharedTimer.handOff(delegate, this::retry);
+
+            } catch (RejectedExecutionException e) {
+                // 线程池仍已满，稍后再次重试
+                synchronized (this) {
+
+                    retryScheduled = false;
+                }
+
+                scheduleRetry();
+            }
+
+        }, RETRY_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 重试操作已占用线程池的一个线程，下一个任务直接在当前线程执行，其余任务按正常方式转交
+     */
+    private void retry() {
+
+        Dispatch dispatch;
+
+        synchronized (this) {
+
+            retryScheduled = false;
+            dispatch = next();
+        }
+
+        if (dispatch == null) {
+
+            return;
+        }
+
+        try {
+
+            drain();
+
+        } catch (RejectedExecutionException e) {
+            // 当前线程执行中的任务完成后会再次转交
+        }
+
+        dispatch.run();
+    }
+
+    private void complete() {
+
+        synchronized (this) {
+
+            inFlight--;
+        }
+
+        try {
+
+            drain();
+
+        } catch (RejectedExecutionException e) {
+            // 线程池拒绝时任务保留在子队列中，由定时重试重新转交
+        }
+    }
+
+    @Override
+    public synchronized int getRemainingCapacity() {
+        return queueCapacity - queued;
+    }
+
+    /**
+     * 获取排队中的任务数
+     *
+     * @return 任务数
+     */
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * 获取已转交至线程池且未完成的任务数
+     *
+     * @return 任务数
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * 获取存在排队任务的租户数
+     *
+     * @return 租户数
+     */
+    public synchronized int getTenantCount() {
+        return tenants.size();
+    }
+
+    /**
+     * 租户状态
+     */
+    private static class Tenant {
+
+        Tenant(Object key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        private final Object key;
+
+        private final int weight;
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        /**
+         * 本轮剩余可转交的任务数
+         */
+        private int deficit;
+    }
+
+    /**
+     * 以指定租户提交任务的执行器
+     */
+    private class TenantExecutor implements BoundedExecutor {
+
+        TenantExecutor(Object tenant, int weight) {
+            this.tenant = tenant;
+            this.weight = weight;
+        }
+
+        private final Object tenant;
+
+        private final int weight;
+
+        @Override
+        public void execute(Runnable command) {
+            enqueue(tenant, weight, command);
+        }
+
+        @Override
+        public int getRemainingCapacity() {
+            return FairQueueExecutor.this.getRemainingCapacity();
+        }
+    }
+
+    /**
+     * 转交至线程池的任务，完成或过期后触发下一次转交，优先级与截止时间取自原任务
+     */
+    private class Dispatch implements PrioritizedTask {
+
+        Dispatch(Tenant tenant, Runnable task) {
+            this.tenant = tenant;
+            this.task = task;
+        }
+
+        private final Tenant tenant;
+
+        private final Runnable task;
+
+        @Override
+        public void run() {
+
+            try {
+
+                task.run();
+
+            } finally {
+
+                complete();
+            }
+        }
+
+        @Override
+        public int getPriority() {
+            return task instanceof PrioritizedTask ? ((PrioritizedTask) task).getPriority() : 0;
+        }
+
+        @Override
+        public long getDeadlineNanos() {
+            return task instanceof PrioritizedTask ? ((PrioritizedTask) task).getDeadlineNanos() : NO_DEADLINE;
+        }
+
+        @Override
+        public void expire() {
+
+            try {
+
+                if (task instanceof PrioritizedTask) {
+
+                    ((PrioritizedTask) task).expire();
+                }
+
+            } finally {
+
+                complete();
+            }
+        }
+    }
+}
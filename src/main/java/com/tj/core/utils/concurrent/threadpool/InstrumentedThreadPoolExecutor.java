@@ -0,0 +1,328 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import com.tj.core.utils.concurrent.metrics.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可观测的线程池，记录任务排队时间、队列深度峰值、拒绝次数与线程忙碌时间
+ * <p>
+ * 提交的任务会被包装以记录入队时间，{@link #remove(Runnable)}与{@link #shutdownNow()}对调用方透明；
+ * 直接操作{@link #getQueue()}时看到的是包装后的任务
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Slf4j
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    public InstrumentedThreadPoolExecutor(String poolName, int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                          BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+
+        this.poolName = poolName;
+        super.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(handler));
+    }
+
+    private final String poolName;
+
+    /**
+     * 排队时间，单位纳秒
+     */
+    private final LatencyHistogram queueSojourn = new LatencyHistogram();
+
+    /**
+     * 队列深度峰值
+     */
+    private final AtomicInteger queueHighWaterMark = new AtomicInteger();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 线程累计忙碌时间，单位纳秒
+     */
+    private final LongAdder busyNanos = new LongAdder();
+
+    /**
+     * 当前线程开始执行任务的时间
+     */
+    private final ThreadLocal<Long> runStartNanos = new ThreadLocal<>();
+
+    /**
+     * 已注册的MBean名称
+     */
+    private volatile ObjectName objectName;
+
+    @Override
+    public void execute(Runnable command) {
+
+        if (command == null) {
+
+            throw new NullPointerException();
+        }
+
+        super.execute(new TimedRunnable(command));
+
+        int queueSize = getQueue().size();
+
+        if (queueSize > queueHighWaterMark.get()) {
+
+            queueHighWaterMark.accumulateAndGet(queueSize, Math::max);
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+
+        long now = System.nanoTime();
+
+        if (r instanceof TimedRunnable) {
+
+            queueSojourn.record(now - ((TimedRunnable) r).enqueueNanos);
+        }
+
+        runStartNanos.set(now);
+
+        super.beforeExecute(t, r);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+
+        super.afterExecute(r, t);
+
+        Long startNanos = runStartNanos.get();
+
+        if (startNanos != null) {
+
+            busyNanos.add(System.nanoTime() - startNanos);
+            runStartNanos.remove();
+        }
+    }
+
+    /**
+     * 从队列中移除未执行的任务
+     *
+     * @param task 提交时的原始任务
+     * @return 是否移除成功
+     */
+    @Override
+    public boolean remove(Runnable task) {
+
+        for (Runnable queued : getQueue()) {
+
+            if (queued == task || (queued instanceof TimedRunnable && ((TimedRunnable) queued).task == task)) {
+
+                return super.remove(queued);
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+
+        List<Runnable> queued = super.shutdownNow();
+        List<Runnable> tasks = new ArrayList<>(queued.size());
+
+        for (Runnable runnable : queued) {
+
+            tasks.add(runnable instanceof TimedRunnable ? ((TimedRunnable) runnable).task : runnable);
+        }
+
+        return tasks;
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(handler));
+    }
+
+    @Override
+    public RejectedExecutionHandler getRejectedExecutionHandler() {
+        return ((CountingRejectedExecutionHandler) super.getRejectedExecutionHandler()).delegate;
+    }
+
+    @Override
+    protected void terminated() {
+
+        super.terminated();
+        unregisterMBean();
+    }
+
+    /**
+     * 获取线程池指标快照
+     *
+     * @return 线程池指标快照
+     */
+    public ThreadPoolSnapshot snapshot() {
+        return new ThreadPoolSnapshot(poolName, getCorePoolSize(), getMaximumPoolSize(), getPoolSize(), getActiveCount(),
+                getQueue().size(), queueHighWaterMark.get(), getCompletedTaskCount(), rejectedCount.sum(), busyNanos.sum(),
+                queueSojourn.snapshot());
+    }
+
+    /**
+     * 重置队列深度峰值
+     */
+    public void resetQueueHighWaterMark() {
+        queueHighWaterMark.set(getQueue().size());
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * 任务被线程池拒绝时尝试重新入队，重新入队成功的任务不计入拒绝次数
+     *
+     * @param task 被拒绝的任务，即包装后的任务
+     * @return 是否重新入队成功，默认不重新入队
+     */
+    protected boolean requeue(Runnable task) {
+        return false;
+    }
+
+    /**
+     * 拒绝策略正常返回后调用，此时任务已被丢弃或已由调用线程执行完成；拒绝策略抛出异常时不调用
+     *
+     * @param task 被拒绝的任务，即包装后的任务
+     */
+    protected void rejectionHandled(Runnable task) {
+    }
+
+    /**
+     * 获取任务的入队时间
+     *
+     * @param task 队列中的任务
+     * @return 入队时间，单位纳秒，未记录时返回空
+     */
+    static Long enqueueNanosOf(Runnable task) {
+        return task instanceof TimedRunnable ? ((TimedRunnable) task).enqueueNanos : null;
+    }
+
+    /**
+     * 注册JMX MBean，名称为com.tj.core.utils.concurrent:type=ThreadPool,name=线程池名称，
+     * 名称已被占用时追加序号；线程池终止时自动注销
+     *
+     * @return 当前线程池
+     */
+    public InstrumentedThreadPoolExecutor registerMBean() {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        synchronized (this) {
+
+            if (objectName != null) {
+
+                return this;
+            }
+
+            try {
+
+                for (int i = 0; ; i++) {
+
+                    ObjectName name = new ObjectName("com.tj.core.utils.concurrent:type=ThreadPool,name="
+                            + ObjectName.quote(i == 0 ? poolName : poolName + "-" + i));
+
+                    if (!mBeanServer.isRegistered(name)) {
+
+                        mBeanServer.registerMBean(new ThreadPoolMXBeanAdapter(this), name);
+                        objectName = name;
+
+                        return this;
+                    }
+                }
+
+            } catch (JMException e) {
+
+                log.warn("线程池MBean注册失败,线程池名称:[{}]", poolName, e);
+                return this;
+            }
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+
+        if (objectName == null) {
+
+            return;
+        }
+
+        try {
+
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+
+        } catch (JMException e) {
+
+            log.warn("线程池MBean注销失败,线程池名称:[{}]", poolName, e);
+        }
+
+        objectName = null;
+    }
+
+    /**
+     * 记录入队时间的任务包装
+     */
+    private static class TimedRunnable implements Runnable {
+
+        private final Runnable task;
+
+        private final long enqueueNanos = System.nanoTime();
+
+        TimedRunnable(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * 不能重新入队时记录拒绝次数并转交原拒绝策略，拒绝策略收到的是原始任务
+     */
+    private class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler delegate;
+
+        CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+
+            if (delegate == null) {
+
+                throw new NullPointerException();
+            }
+
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+
+            if (requeue(r)) {
+
+                return;
+            }
+
+            rejectedCount.increment();
+            delegate.rejectedExecution(r instanceof TimedRunnable ? ((TimedRunnable) r).task : r, executor);
+
+            rejectionHandled(r);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+/**
+ * 带优先级与截止时间的任务，优先级线程池按优先级、截止时间排序执行
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public interface PrioritizedTask extends Runnable {
+
+    /**
+     * 不限制截止时间
+     */
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * 获取任务优先级
+     *
+     * @return 优先级，数值越小越优先
+     */
+    int getPriority();
+
+    /**
+     * 获取任务截止时间
+     *
+     * @return 截止时间，System.nanoTime()时间基准，不限制时返回{@link #NO_DEADLINE}
+     */
+    long getDeadlineNanos();
+
+    /**
+     * 任务在开始执行前已过截止时间，不再执行时调用
+     */
+    void expire();
+}
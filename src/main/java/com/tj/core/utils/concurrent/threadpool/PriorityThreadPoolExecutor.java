@@ -0,0 +1,188 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 优先级线程池，排队中的任务按优先级、截止时间、提交顺序依次执行，即同一优先级内截止时间最早的任务最先执行
+ * <p>
+ * 优先级与截止时间取自{@link PrioritizedTask}，其他任务为默认优先级0且不限制截止时间；
+ * 出队时已过截止时间的任务不再执行，由{@link PrioritizedTask#expire()}结束
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class PriorityThreadPoolExecutor extends ThreadPoolExecutor implements BoundedExecutor {
+
+    /**
+     * @param poolSize      线程数
+     * @param queueCapacity 队列容量，队列已满时按拒绝策略处理
+     * @param threadFactory 线程工厂
+     * @param handler       拒绝策略
+     */
+    public PriorityThreadPoolExecutor(int poolSize, int queueCapacity, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+
+        super(poolSize, poolSize, 10, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), threadFactory, handler);
+
+        if (queueCapacity <= 0) {
+
+            throw new IllegalArgumentException("线程池参数配置错误");
+        }
+
+        this.queueCapacity = queueCapacity;
+    }
+
+    private final int queueCapacity;
+
+    /**
+     * 提交序号，相同优先级与截止时间的任务按提交顺序执行
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 因过截止时间未执行的任务数
+     */
+    private final LongAdder expiredCount = new LongAdder();
+
+    /**
+     * 提交任务，队列容量在提交时检查，并发提交时队列深度可能短暂超出容量
+     *
+     * @param command 任务
+     */
+    @Override
+    public void execute(Runnable command) {
+
+        if (command == null) {
+
+            throw new NullPointerException();
+        }
+
+        if (getQueue().size() >= queueCapacity) {
+
+            getRejectedExecutionHandler().rejectedExecution(command, this);
+            return;
+        }
+
+        super.execute(new PriorityTask(command, sequence.getAndIncrement()));
+    }
+
+    /**
+     * 从队列中移除未执行的任务
+     *
+     * @param task 提交时的原始任务
+     * @return 是否移除成功
+     */
+    @Override
+    public boolean remove(Runnable task) {
+
+        for (Runnable queued : getQueue()) {
+
+            if (queued == task || (queued instanceof PriorityTask && ((PriorityTask) queued).task == task)) {
+
+                return super.remove(queued);
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+
+        List<Runnable> queued = super.shutdownNow();
+        List<Runnable> tasks = new ArrayList<>(queued.size());
+
+        for (Runnable runnable : queued) {
+
+            tasks.add(runnable instanceof PriorityTask ? ((PriorityTask) runnable).task : runnable);
+        }
+
+        return tasks;
+    }
+
+    @Override
+    public int getRemainingCapacity() {
+        return isShutdown() ? 0 : Math.max(0, queueCapacity - getQueue().size());
+    }
+
+    /**
+     * 获取因过截止时间未执行的任务数
+     *
+     * @return 任务数
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * 排序任务包装，优先级与截止时间在提交时确定
+     */
+    private class PriorityTask implements Runnable, Comparable<PriorityTask> {
+
+        private final Runnable task;
+
+        private final int priority;
+
+        private final long deadlineNanos;
+
+        private final long sequence;
+
+        PriorityTask(Runnable task, long sequence) {
+
+            this.task = task;
+            this.sequence = sequence;
+
+            if (task instanceof PrioritizedTask) {
+
+                this.priority = ((PrioritizedTask) task).getPriority();
+                this.deadlineNanos = ((PrioritizedTask) task).getDeadlineNanos();
+            } else {
+
+                this.priority = 0;
+                this.deadlineNanos = PrioritizedTask.NO_DEADLINE;
+            }
+        }
+
+        @Override
+        public void run() {
+
+            if (deadlineNanos != PrioritizedTask.NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+
+                expiredCount.increment();
+                ((PrioritizedTask) task).expire();
+
+                return;
+            }
+
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PriorityTask other) {
+
+            if (priority != other.priority) {
+
+                return Integer.compare(priority, other.priority);
+            }
+
+            if (deadlineNanos != other.deadlineNanos) {
+                // 不限制截止时间的任务排在最后，有截止时间的任务按纳秒时间差比较以避免溢出
+                if (deadlineNanos == PrioritizedTask.NO_DEADLINE || other.deadlineNanos == PrioritizedTask.NO_DEADLINE) {
+
+                    return deadlineNanos == PrioritizedTask.NO_DEADLINE ? 1 : -1;
+                }
+
+                return deadlineNanos - other.deadlineNanos < 0 ? -1 : 1;
+            }
+
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
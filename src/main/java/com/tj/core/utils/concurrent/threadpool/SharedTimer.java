@@ -0,0 +1,85 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享定时器，仅负责到期调度，到期任务应尽快转交至业务线程池执行
+ *
+ * @author tangjie
+ * @date 2022/5/21
+ */
+public class SharedTimer {
+
+    private static final ScheduledThreadPoolExecutor TIMER;
+
+    /**
+     * 定时线程，定时器只有一个线程
+     */
+    private static volatile Thread timerThread;
+
+    static {
+        CommonThreadPoolExecutors.DefaultThreadFactory threadFactory = new CommonThreadPoolExecutors.DefaultThreadFactory("shared-timer", true);
+
+        TIMER = new ScheduledThreadPoolExecutor(1, r -> timerThread = threadFactory.newThread(r));
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private SharedTimer() {
+    }
+
+    /**
+     * 延迟执行任务
+     *
+     * @param task  到期执行的任务，不应包含阻塞操作
+     * @param delay 延迟时间
+     * @param unit  时间单位
+     * @return 可用于取消的调度结果
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(task, delay, unit);
+    }
+
+    /**
+     * 将到期任务中的业务操作转交至业务线程池执行
+     * <p>
+     * 线程池以调用线程执行被拒绝的任务（CallerRunsPolicy）时，被拒绝的操作不在定时线程中执行而是视为拒绝；
+     * 仅此时操作被包装后提交，其他线程池直接提交原操作，不影响按原任务移除与优先级排序
+     *
+     * @param executor 业务线程池
+     * @param task     业务操作
+     * @throws RejectedExecutionException 线程池拒绝或业务操作将在定时线程中执行
+     */
+    public static void handOff(Executor executor, Runnable task) {
+
+        if (!runsRejectedInCaller(executor)) {
+
+            executor.execute(task);
+            return;
+        }
+
+        executor.execute(() -> {
+
+            if (Thread.currentThread() == timerThread) {
+
+                throw new RejectedExecutionException("业务操作不能在定时线程中执行");
+            }
+
+            task.run();
+        });
+    }
+
+    /**
+     * 判断线程池是否在调用线程中执行被拒绝的任务
+     *
+     * @param executor 线程池
+     * @return 拒绝策略为CallerRunsPolicy时返回true
+     */
+    static boolean runsRejectedInCaller(Executor executor) {
+        return executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).getRejectedExecutionHandler() instanceof ThreadPoolExecutor.CallerRunsPolicy;
+    }
+}
@@ -0,0 +1,179 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个任务创建一个线程的执行器，用于虚拟线程
+ * <p>
+ * 设置最大并发数时，任务线程启动后先获取许可再执行，超出并发数的任务阻塞在各自的虚拟线程中等待
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+class ThreadPerTaskExecutor extends AbstractExecutorService {
+
+    ThreadPerTaskExecutor(ThreadFactory threadFactory, int maxConcurrency) {
+        this.threadFactory = threadFactory;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    private final ThreadFactory threadFactory;
+
+    /**
+     * 并发许可，不限制并发数时为空
+     */
+    private final Semaphore permits;
+
+    /**
+     * 执行中的线程
+     */
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean shutdown;
+
+    @Override
+    public void execute(Runnable command) {
+
+        if (command == null) {
+
+            throw new NullPointerException();
+        }
+
+        if (shutdown) {
+
+            throw new RejectedExecutionException("执行器已关闭");
+        }
+
+        Thread thread = threadFactory.newThread(() -> run(command));
+
+        if (thread == null) {
+
+            throw new RejectedExecutionException("线程创建失败");
+        }
+
+        threads.add(thread);
+
+        // 关闭与登记并发时，由当前线程撤销
+        if (shutdown) {
+
+            threads.remove(thread);
+            signalIfTerminated();
+
+            throw new RejectedExecutionException("执行器已关闭");
+        }
+
+        thread.start();
+    }
+
+    private void run(Runnable command) {
+
+        try {
+
+            if (permits == null) {
+
+                command.run();
+                return;
+            }
+
+            try {
+
+                permits.acquire();
+
+            } catch (InterruptedException e) {
+                // 等待许可期间执行器被强制关闭
+                return;
+            }
+
+            try {
+
+                command.run();
+
+            } finally {
+
+                permits.release();
+            }
+
+        } finally {
+
+            threads.remove(Thread.currentThread());
+            signalIfTerminated();
+        }
+    }
+
+    private void signalIfTerminated() {
+
+        if (shutdown && threads.isEmpty()) {
+
+            synchronized (this) {
+
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+
+        shutdown = true;
+        signalIfTerminated();
+    }
+
+    /**
+     * 中断全部执行中的线程，每个任务在提交时已分配线程，因此不存在未执行的任务
+     *
+     * @return 空列表
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+
+        shutdown();
+
+        for (Thread thread : threads) {
+
+            thread.interrupt();
+        }
+
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && threads.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (this) {
+
+            while (!isTerminated()) {
+
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+
+                    return false;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+/**
+ * 线程池JMX管理接口，耗时单位为纳秒
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public interface ThreadPoolMXBean {
+
+    String getPoolName();
+
+    int getCorePoolSize();
+
+    int getMaximumPoolSize();
+
+    int getPoolSize();
+
+    int getActiveCount();
+
+    double getUtilization();
+
+    int getQueueSize();
+
+    int getQueueHighWaterMark();
+
+    long getCompletedTaskCount();
+
+    long getRejectedCount();
+
+    long getBusyNanos();
+
+    long getQueueSojournCount();
+
+    double getQueueSojournMeanNanos();
+
+    long getQueueSojournP50Nanos();
+
+    long getQueueSojournP99Nanos();
+
+    long getQueueSojournMaxNanos();
+
+    /**
+     * 重置队列深度峰值
+     */
+    void resetQueueHighWaterMark();
+}
@@ -0,0 +1,101 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+/**
+ * 线程池JMX管理接口实现，每次读取均从线程池获取最新快照
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+class ThreadPoolMXBeanAdapter implements ThreadPoolMXBean {
+
+    ThreadPoolMXBeanAdapter(InstrumentedThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    private final InstrumentedThreadPoolExecutor executor;
+
+    @Override
+    public String getPoolName() {
+        return executor.getPoolName();
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public double getUtilization() {
+        return executor.snapshot().utilization();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getQueueHighWaterMark() {
+        return executor.snapshot().getQueueHighWaterMark();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return executor.snapshot().getRejectedCount();
+    }
+
+    @Override
+    public long getBusyNanos() {
+        return executor.snapshot().getBusyNanos();
+    }
+
+    @Override
+    public long getQueueSojournCount() {
+        return executor.snapshot().getQueueSojourn().getCount();
+    }
+
+    @Override
+    public double getQueueSojournMeanNanos() {
+        return executor.snapshot().getQueueSojourn().getMean();
+    }
+
+    @Override
+    public long getQueueSojournP50Nanos() {
+        return executor.snapshot().getQueueSojourn().percentile(50);
+    }
+
+    @Override
+    public long getQueueSojournP99Nanos() {
+        return executor.snapshot().getQueueSojourn().percentile(99);
+    }
+
+    @Override
+    public long getQueueSojournMaxNanos() {
+        return executor.snapshot().getQueueSojourn().getMax();
+    }
+
+    @Override
+    public void resetQueueHighWaterMark() {
+        executor.resetQueueHighWaterMark();
+    }
+}
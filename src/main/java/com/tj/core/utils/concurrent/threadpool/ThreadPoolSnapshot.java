@@ -0,0 +1,70 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import com.tj.core.utils.concurrent.metrics.HistogramSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 线程池指标快照
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ThreadPoolSnapshot {
+
+    private final String poolName;
+
+    private final int corePoolSize;
+
+    private final int maximumPoolSize;
+
+    /**
+     * 当前线程数
+     */
+    private final int poolSize;
+
+    /**
+     * 正在执行任务的线程数
+     */
+    private final int activeCount;
+
+    /**
+     * 当前队列深度
+     */
+    private final int queueSize;
+
+    /**
+     * 队列深度峰值
+     */
+    private final int queueHighWaterMark;
+
+    private final long completedTaskCount;
+
+    /**
+     * 拒绝次数
+     */
+    private final long rejectedCount;
+
+    /**
+     * 线程累计忙碌时间，单位纳秒
+     */
+    private final long busyNanos;
+
+    /**
+     * 任务排队时间，单位纳秒
+     */
+    private final HistogramSnapshot queueSojourn;
+
+    /**
+     * 线程利用率，即忙碌线程数与当前线程数之比
+     *
+     * @return 线程利用率，无线程时返回0
+     */
+    public double utilization() {
+        return poolSize == 0 ? 0 : (double) activeCount / poolSize;
+    }
+}
@@ -1,5 +1,11 @@
 package com.tj.core.utils.retries;
 
+import com.tj.core.utils.concurrent.threadpool.SharedTimer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 任务重试执行工具类
  *
@@ -24,35 +30,175 @@ public class RetriesExecuteUtil {
             throw new IllegalArgumentException("重试任务参数配置错误");
         }
 
-        int temp = 0;
+        return run(executor, param, RetryPolicy.fixed(retries, retriesInterval));
+    }
+
+    /**
+     * 任务执行（若失败按重试策略重试执行），重试间隔在当前线程中等待，等待期间线程被中断时不再重试
+     *
+     * @param executor    执行器
+     * @param param       请求参数
+     * @param retryPolicy 重试策略
+     * @return 任务执行结果
+     * @throws Exception 最后一次执行的异常信息，等待期间被中断时中断异常作为其抑制异常，且保留线程中断状态
+     */
+    public static <T, K> K run(Executor<T, K> executor, T param, RetryPolicy retryPolicy) throws Exception {
+
+        if (executor == null || retryPolicy == null) {
+            throw new IllegalArgumentException("重试任务参数配置错误");
+        }
 
-        K result = null;
+        retryPolicy.recordRequest();
 
-        while (temp++ < retries + 1) {
+        for (int retries = 0; ; retries++) {
 
             try {
 
-                result = executor.run(param, temp);
-                break;
+                return executor.run(param, retries + 1);
 
             } catch (Exception e) {
 
-                if (temp == retries + 1) {
+                if (!retryPolicy.shouldRetry(e, retries)) {
                     throw e;
                 }
 
-                if (retriesInterval > 0) {
+                long interval = retryPolicy.nextInterval(retries);
+
+                if (interval > 0) {
 
                     try {
-                        Thread.sleep(retriesInterval);
+                        Thread.sleep(interval);
                     } catch (InterruptedException ie) {
 
+                        Thread.currentThread().interrupt();
+                        e.addSuppressed(ie);
+
+                        throw e;
                     }
                 }
             }
         }
+    }
+
+    /**
+     * 异步任务执行（若失败按重试策略重试执行），每次执行在线程池中进行，重试间隔由共享定时器调度，等待期间不占用任何线程
+     *
+     * @param executor    执行器
+     * @param param       请求参数
+     * @param retryPolicy 重试策略
+     * @param threadPool  执行任务的线程池
+     * @return 任务执行结果，取消后不再发起重试
+     */
+    public static <T, K> CompletableFuture<K> runAsync(Executor<T, K> executor, T param, RetryPolicy retryPolicy,
+                                                       java.util.concurrent.Executor threadPool) {
+
+        if (executor == null || retryPolicy == null || threadPool == null) {
+            throw new IllegalArgumentException("重试任务参数配置错误");
+        }
+
+        retryPolicy.recordRequest();
+
+        AsyncRetry<T, K> asyncRetry = new AsyncRetry<>(executor, param, retryPolicy, threadPool);
+        asyncRetry.dispatch();
+
+        return asyncRetry.future;
+    }
+
+    /**
+     * 异步重试过程
+     */
+    private static class AsyncRetry<T, K> {
+
+        AsyncRetry(Executor<T, K> executor, T param, RetryPolicy retryPolicy, java.util.concurrent.Executor threadPool) {
+            this.executor = executor;
+            this.param = param;
+            this.retryPolicy = retryPolicy;
+            this.threadPool = threadPool;
+
+            future.whenComplete((ret, e) -> {
+
+                ScheduledFuture<?> current = scheduled;
+
+                if (current != null) {
+
+                    current.cancel(false);
+                }
+            });
+        }
+
+        private final Executor<T, K> executor;
+
+        private final T param;
+
+        private final RetryPolicy retryPolicy;
+
+        private final java.util.concurrent.Executor threadPool;
 
-        return result;
+        private final CompletableFuture<K> future = new CompletableFuture<>();
+
+        /**
+         * 已重试次数，各次执行先后进行，由线程池与定时器的提交保证可见性
+         */
+        private int retries;
+
+        /**
+         * 下一次重试的调度结果
+         */
+        private volatile ScheduledFuture<?> scheduled;
+
+        private void dispatch() {
+
+            try {
+
+                SharedTimer.handOff(threadPool, this::attempt);
+
+            } catch (RuntimeException e) {
+
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void attempt() {
+
+            if (future.isDone()) {
+
+                return;
+            }
+
+            try {
+
+                future.complete(executor.run(param, retries + 1));
+
+            } catch (Throwable e) {
+
+                onFailure(e);
+            }
+        }
+
+        private void onFailure(Throwable e) {
+
+            if (!retryPolicy.shouldRetry(e, retries)) {
+
+                future.completeExceptionally(e);
+                return;
+            }
+
+            long interval = retryPolicy.nextInterval(retries++);
+
+            if (interval == 0) {
+
+                dispatch();
+                return;
+            }
+
+            scheduled = SharedTimer.schedule(this::dispatch, interval, TimeUnit.MILLISECONDS);
+
+            // 调度与取消并发时，由当前线程撤销
+            if (future.isDone()) {
+
+                scheduled.cancel(false);
+            }
+        }
     }
 
 
@@ -0,0 +1,163 @@
+package com.tj.core.utils.retries;
+
+/**
+ * 重试预算，限制滑动窗口内重试次数与请求次数的比例，避免下游故障时重试放大流量
+ * <p>
+ * 窗口内允许的重试次数为：请求次数 * 重试比例 + 每秒最少重试次数 * 窗口秒数
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class RetryBudget {
+
+    /**
+     * 窗口分桶数量
+     */
+    private static final int BUCKETS = 10;
+
+    /**
+     * 重试比例
+     */
+    private final double retryRatio;
+
+    /**
+     * 窗口内最少允许的重试次数，保证低流量时仍可重试
+     */
+    private final long minRetries;
+
+    /**
+     * 每个分桶的时长，单位毫秒
+     */
+    private final long bucketMillis;
+
+    private final long[] requests = new long[BUCKETS];
+
+    private final long[] retries = new long[BUCKETS];
+
+    private long requestTotal;
+
+    private long retryTotal;
+
+    /**
+     * 当前分桶序号
+     */
+    private long currentBucket;
+
+    private RetryBudget(double retryRatio, int minRetriesPerSecond, long windowMillis) {
+
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || windowMillis < BUCKETS) {
+
+            throw new IllegalArgumentException("重试预算参数配置错误");
+        }
+
+        this.retryRatio = retryRatio;
+        this.minRetries = minRetriesPerSecond * windowMillis / 1000;
+        this.bucketMillis = windowMillis / BUCKETS;
+        this.currentBucket = System.currentTimeMillis() / bucketMillis;
+    }
+
+    /**
+     * 创建窗口为10秒的重试预算
+     *
+     * @param retryRatio          重试比例，如0.1表示重试次数不超过请求次数的10%
+     * @param minRetriesPerSecond 每秒最少允许的重试次数
+     * @return 重试预算
+     */
+    public static RetryBudget of(double retryRatio, int minRetriesPerSecond) {
+        return new RetryBudget(retryRatio, minRetriesPerSecond, 10000);
+    }
+
+    /**
+     * 创建重试预算
+     *
+     * @param retryRatio          重试比例
+     * @param minRetriesPerSecond 每秒最少允许的重试次数
+     * @param windowMillis        窗口时长，单位毫秒
+     * @return 重试预算
+     */
+    public static RetryBudget of(double retryRatio, int minRetriesPerSecond, long windowMillis) {
+        return new RetryBudget(retryRatio, minRetriesPerSecond, windowMillis);
+    }
+
+    /**
+     * 记录一次请求
+     */
+    public synchronized void recordRequest() {
+
+        int index = advance();
+
+        requests[index]++;
+        requestTotal++;
+    }
+
+    /**
+     * 尝试占用一次重试
+     *
+     * @return 预算充足时返回true
+     */
+    public synchronized boolean tryAcquire() {
+
+        int index = advance();
+
+        if (retryTotal >= (long) (requestTotal * retryRatio) + minRetries) {
+
+            return false;
+        }
+
+        retries[index]++;
+        retryTotal++;
+
+        return true;
+    }
+
+    /**
+     * 获取窗口内的请求次数
+     *
+     * @return 请求次数
+     */
+    public synchronized long getRequestCount() {
+
+        advance();
+        return requestTotal;
+    }
+
+    /**
+     * 获取窗口内的重试次数
+     *
+     * @return 重试次数
+     */
+    public synchronized long getRetryCount() {
+
+        advance();
+        return retryTotal;
+    }
+
+    /**
+     * 滑动窗口，清空已过期的分桶
+     *
+     * @return 当前分桶下标
+     */
+    private int advance() {
+
+        long bucket = System.currentTimeMillis() / bucketMillis;
+
+        if (bucket > currentBucket) {
+
+            long expired = Math.min(bucket - currentBucket, BUCKETS);
+
+            for (long i = 1; i <= expired; i++) {
+
+                int index = (int) ((currentBucket + i) % BUCKETS);
+
+                requestTotal -= requests[index];
+                retryTotal -= retries[index];
+                requests[index] = 0;
+                retries[index] = 0;
+            }
+
+            currentBucket = bucket;
+        }
+
+        return (int) (currentBucket % BUCKETS);
+    }
+}
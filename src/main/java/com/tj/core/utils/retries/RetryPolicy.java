@@ -0,0 +1,163 @@
+package com.tj.core.utils.retries;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * 任务重试策略，支持固定间隔、指数退避、随机抖动、可重试异常判断与重试预算
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+@Getter
+public class RetryPolicy {
+
+    /**
+     * 最大重试次数，不含首次执行
+     */
+    private final int maxRetries;
+
+    /**
+     * 首次重试间隔，单位毫秒
+     */
+    private final long initialInterval;
+
+    /**
+     * 最大重试间隔，单位毫秒
+     */
+    private final long maxInterval;
+
+    /**
+     * 退避倍数
+     */
+    private final double multiplier;
+
+    /**
+     * 抖动比例，取值[0, 1]，实际间隔在[interval * (1 - jitter), interval]之间随机
+     */
+    private final double jitter;
+
+    /**
+     * 判断异常是否可重试，默认仅重试Exception
+     */
+    private final Predicate<Throwable> retryOn;
+
+    /**
+     * 重试预算，为空表示不限制
+     */
+    private final RetryBudget budget;
+
+    private RetryPolicy(int maxRetries, long initialInterval, long maxInterval, double multiplier, double jitter,
+                        Predicate<Throwable> retryOn, RetryBudget budget) {
+
+        if (maxRetries < 0 || initialInterval < 0 || maxInterval < initialInterval || multiplier < 1 || jitter < 0 || jitter > 1 || retryOn == null) {
+
+            throw new IllegalArgumentException("重试任务参数配置错误");
+        }
+
+        this.maxRetries = maxRetries;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+        this.budget = budget;
+    }
+
+    /**
+     * 创建固定间隔的重试策略
+     *
+     * @param maxRetries 最大重试次数
+     * @param interval   重试间隔，单位毫秒
+     * @return 重试策略
+     */
+    public static RetryPolicy fixed(int maxRetries, long interval) {
+        return new RetryPolicy(maxRetries, interval, interval, 1, 0, x -> x instanceof Exception, null);
+    }
+
+    /**
+     * 创建指数退避的重试策略
+     *
+     * @param maxRetries      最大重试次数
+     * @param initialInterval 首次重试间隔，单位毫秒
+     * @param maxInterval     最大重试间隔，单位毫秒
+     * @param multiplier      退避倍数
+     * @return 重试策略
+     */
+    public static RetryPolicy exponential(int maxRetries, long initialInterval, long maxInterval, double multiplier) {
+        return new RetryPolicy(maxRetries, initialInterval, maxInterval, multiplier, 0, x -> x instanceof Exception, null);
+    }
+
+    /**
+     * 在当前策略基础上增加随机抖动
+     *
+     * @param jitter 抖动比例，取值[0, 1]
+     * @return 新的重试策略
+     */
+    public RetryPolicy withJitter(double jitter) {
+        return new RetryPolicy(maxRetries, initialInterval, maxInterval, multiplier, jitter, retryOn, budget);
+    }
+
+    /**
+     * 在当前策略基础上指定可重试的异常
+     *
+     * @param retryOn 判断异常是否可重试
+     * @return 新的重试策略
+     */
+    public RetryPolicy retryOn(Predicate<Throwable> retryOn) {
+        return new RetryPolicy(maxRetries, initialInterval, maxInterval, multiplier, jitter, retryOn, budget);
+    }
+
+    /**
+     * 在当前策略基础上指定重试预算，多个策略可共享同一预算
+     *
+     * @param budget 重试预算
+     * @return 新的重试策略
+     */
+    public RetryPolicy withBudget(RetryBudget budget) {
+        return new RetryPolicy(maxRetries, initialInterval, maxInterval, multiplier, jitter, retryOn, budget);
+    }
+
+    /**
+     * 计算下一次重试的间隔
+     *
+     * @param retries 已重试次数，从0开始
+     * @return 重试间隔，单位毫秒
+     */
+    public long nextInterval(int retries) {
+
+        double interval = initialInterval * Math.pow(multiplier, retries);
+        long bounded = interval >= maxInterval ? maxInterval : (long) interval;
+
+        if (jitter == 0 || bounded == 0) {
+
+            return bounded;
+        }
+
+        return Math.max(1, (long) (bounded * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+    }
+
+    /**
+     * 判断执行失败后是否重试，需要重试时占用一次重试预算，中断异常不重试
+     *
+     * @param e       异常信息
+     * @param retries 已重试次数
+     * @return 是否重试
+     */
+    boolean shouldRetry(Throwable e, int retries) {
+        return retries < maxRetries && !(e instanceof InterruptedException) && retryOn.test(e) && (budget == null || budget.tryAcquire());
+    }
+
+    /**
+     * 记录一次请求，用于计算重试预算
+     */
+    void recordRequest() {
+
+        if (budget != null) {
+
+            budget.recordRequest();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tj.core.utils.concurrent.breaker;
+
+import com.tj.core.utils.concurrent.executor.AbstractSyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 熔断器半开探测与共享测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class CircuitBreakerTest {
+
+    /**
+     * 打开时长到期后进入半开状态，仅发放配置数量的探测许可，探测全部成功后关闭
+     */
+    @Test
+    public void halfOpenClosesAfterProbesSucceed() throws InterruptedException {
+
+        CircuitBreaker circuitBreaker = openedBreaker();
+
+        Assert.assertNull(circuitBreaker.tryAcquire());
+
+        Thread.sleep(150);
+
+        CircuitBreaker.Permit first = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit second = circuitBreaker.tryAcquire();
+
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, first.getState());
+        Assert.assertSame(first, second);
+        Assert.assertNull(circuitBreaker.tryAcquire());
+
+        circuitBreaker.record(first, false, 0);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.record(second, false, 0);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    /**
+     * 半开状态下任一探测失败立即重新打开，此前发放的许可不再影响新状态
+     */
+    @Test
+    public void halfOpenReopensOnProbeFailure() throws InterruptedException {
+
+        CircuitBreaker circuitBreaker = openedBreaker();
+
+        Thread.sleep(150);
+
+        CircuitBreaker.Permit first = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit second = circuitBreaker.tryAcquire();
+
+        circuitBreaker.record(first, true, 0);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        circuitBreaker.record(second, false, 0);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.isCallRejected());
+    }
+
+    /**
+     * 多层装饰的执行器与被装饰执行器共享同一熔断器
+     */
+    @Test
+    public void nestedDecoratorsShareBreaker() {
+
+        CircuitBreakerOptions options = new CircuitBreakerOptions();
+
+        CircuitBreakerSyncTaskExecutor<Integer, Integer> inner = new CircuitBreakerSyncTaskExecutor<>(new EchoTaskExecutor(), options);
+        CircuitBreakerSyncTaskExecutor<Integer, Integer> outer = new CircuitBreakerSyncTaskExecutor<>(inner, options);
+
+        Assert.assertSame(CircuitBreaker.of(EchoTaskExecutor.class), inner.getCircuitBreaker());
+        Assert.assertSame(inner.getCircuitBreaker(), outer.getCircuitBreaker());
+    }
+
+    /**
+     * 窗口内2次调用全部失败后打开，打开时长100毫秒，半开状态探测2次
+     */
+    private CircuitBreaker openedBreaker() {
+
+        CircuitBreakerOptions options = new CircuitBreakerOptions();
+        options.setWindowSize(4);
+        options.setMinimumCalls(2);
+        options.setOpenDuration(100);
+        options.setHalfOpenProbes(2);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("breaker-test", options);
+
+        circuitBreaker.record(circuitBreaker.tryAcquire(), true, 0);
+        circuitBreaker.record(circuitBreaker.tryAcquire(), true, 0);
+
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        return circuitBreaker;
+    }
+
+    private static class EchoTaskExecutor extends AbstractSyncTaskExecutor<Integer, Integer> {
+
+        EchoTaskExecutor() {
+            super(new TaskParam<>(1, 1));
+        }
+
+        @Override
+        public Integer invoke(Integer param) {
+            return param;
+        }
+    }
+}
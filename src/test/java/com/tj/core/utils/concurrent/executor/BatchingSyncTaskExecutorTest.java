@@ -0,0 +1,119 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResults;
+import com.tj.core.utils.concurrent.threadarrange.ExecutorType;
+import com.tj.core.utils.concurrent.threadarrange.TaskArranger;
+import com.tj.core.utils.concurrent.threadarrange.TaskContainer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量同步任务提前关闭批次测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class BatchingSyncTaskExecutorTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(8);
+
+    @After
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * 并行提交的任务全部加入批次后立即执行一次批量调用，不等待合并窗口
+     */
+    @Test
+    public void parallelSubmitFlushesWhenAllJoined() throws InterruptedException {
+
+        AtomicInteger batchCalls = new AtomicInteger();
+        List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+
+            syncTaskExecutors.add(new DoubleTaskExecutor(i, "parallel", batchCalls));
+        }
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(threadPool, syncTaskExecutors);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(1, batchCalls.get());
+        Assert.assertEquals(Integer.valueOf(14), taskResults.get(7).getData());
+    }
+
+    /**
+     * 串行容器中的任务不等待合并窗口，每个任务单独调用
+     */
+    @Test
+    public void serialContainerDoesNotWaitWindow() throws Exception {
+
+        AtomicInteger batchCalls = new AtomicInteger();
+        List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+
+            syncTaskExecutors.add(new DoubleTaskExecutor(i, "serial", batchCalls));
+        }
+
+        TaskContainer<Integer, Integer> taskContainer = new TaskContainer<>();
+        taskContainer.setThreadPool(threadPool);
+        taskContainer.setExecutorType(ExecutorType.SERIAL);
+        taskContainer.setSyncTaskExecutors(syncTaskExecutors);
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = TaskArranger.build().appendTask(taskContainer).doTasks();
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(3, batchCalls.get());
+        Assert.assertEquals(Integer.valueOf(4), taskResults.get(2).getData());
+    }
+
+    /**
+     * 批量返回参数的2倍，合并窗口5秒
+     */
+    private static class DoubleTaskExecutor extends BatchingSyncTaskExecutor<Integer, Integer> {
+
+        private final String batchKey;
+
+        private final AtomicInteger batchCalls;
+
+        DoubleTaskExecutor(int id, String batchKey, AtomicInteger batchCalls) {
+            super(new TaskParam<>(id, id));
+            this.batchKey = batchKey;
+            this.batchCalls = batchCalls;
+        }
+
+        @Override
+        public Map<Integer, Integer> invokeAll(Collection<Integer> params) {
+
+            batchCalls.incrementAndGet();
+
+            return params.stream().collect(Collectors.toMap(Function.identity(), x -> x * 2));
+        }
+
+        @Override
+        public Object getBatchKey() {
+            return batchKey;
+        }
+
+        @Override
+        public long getBatchWindow() {
+            return 5000;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.tj.core.utils.concurrent.executor;
+
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResults;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步任务批量提交的快速失败与准入策略测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskExecuteManagerTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * 快速失败时任一任务执行异常立即取消其余任务，调用线程不等待被取消的任务结束
+     */
+    @Test
+    public void failFastCancelsSiblings() throws InterruptedException {
+
+        List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = Arrays.asList(
+                new SleepTaskExecutor(1, 5000), new SleepTaskExecutor(2, -50), new SleepTaskExecutor(3, 5000));
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setFailFast(true);
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(threadPool, syncTaskExecutors, submitOptions);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertTrue(taskResults.get(1).isException());
+        Assert.assertTrue(taskResults.get(0).isCancelled());
+        Assert.assertTrue(taskResults.get(2).isCancelled());
+    }
+
+    /**
+     * 未开启快速失败时任务异常不影响其余任务
+     */
+    @Test
+    public void withoutFailFastSiblingsComplete() throws InterruptedException {
+
+        List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = Arrays.asList(new SleepTaskExecutor(1, 100), new SleepTaskExecutor(2, -10));
+
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(threadPool, syncTaskExecutors, new SubmitOptions());
+
+        Assert.assertEquals(Integer.valueOf(100), taskResults.get(0).getData());
+        Assert.assertTrue(taskResults.get(1).isException());
+    }
+
+    /**
+     * 阻塞准入时等待线程池接收任务，单线程无队列的线程池依次执行全部任务
+     */
+    @Test
+    public void blockAdmissionWaitsForCapacity() throws Exception {
+
+        ThreadPoolExecutor executor = singleThreadPool(new SynchronousQueue<>());
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setAdmission(AdmissionPolicy.BLOCK);
+        submitOptions.setAdmissionTimeout(5000L);
+
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(executor, sleepTasks(3, 50), submitOptions);
+        TaskResults<Integer, Integer> asyncTaskResults = TaskExecuteManager.submitSyncAsync(executor, sleepTasks(3, 50), submitOptions).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 3; i++) {
+
+            Assert.assertEquals(Integer.valueOf(50), taskResults.get(i).getData());
+            Assert.assertEquals(Integer.valueOf(50), asyncTaskResults.get(i).getData());
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * 阻塞准入超过准入等待时间后返回拒绝结果
+     */
+    @Test
+    public void blockAdmissionTimesOut() throws InterruptedException {
+
+        ThreadPoolExecutor executor = singleThreadPool(new SynchronousQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setAdmission(AdmissionPolicy.BLOCK);
+        submitOptions.setAdmissionTimeout(100L);
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(executor, sleepTasks(1, 0), submitOptions);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertTrue(taskResults.get(0).isRejected());
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    /**
+     * 整批准入时线程池剩余容量不足则全部任务返回拒绝结果，不占用线程池队列
+     */
+    @Test
+    public void rejectAllWhenCapacityShort() throws InterruptedException {
+
+        ThreadPoolExecutor executor = singleThreadPool(new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+
+        SubmitOptions submitOptions = new SubmitOptions();
+        submitOptions.setAdmission(AdmissionPolicy.REJECT_ALL);
+
+        TaskResults<Integer, Integer> taskResults = TaskExecuteManager.submitSync(executor, sleepTasks(3, 0), submitOptions);
+
+        for (int i = 0; i < 3; i++) {
+
+            Assert.assertTrue(taskResults.get(i).isRejected());
+        }
+
+        Assert.assertEquals(0, executor.getQueue().size());
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static ThreadPoolExecutor singleThreadPool(BlockingQueue<Runnable> workQueue) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, workQueue, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static List<SyncTaskExecutor<Integer, Integer>> sleepTasks(int count, int sleep) {
+
+        List<SyncTaskExecutor<Integer, Integer>> syncTaskExecutors = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            syncTaskExecutors.add(new SleepTaskExecutor(i, sleep));
+        }
+
+        return syncTaskExecutors;
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+
+            latch.await();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 休眠参数绝对值的毫秒数，参数为负数时休眠后抛出异常
+     */
+    private static class SleepTaskExecutor extends AbstractSyncTaskExecutor<Integer, Integer> {
+
+        SleepTaskExecutor(int id, int sleep) {
+            super(new TaskParam<>(id, sleep));
+        }
+
+        @Override
+        public Integer invoke(Integer sleep) throws Exception {
+
+            Thread.sleep(Math.abs(sleep));
+
+            if (sleep < 0) {
+
+                throw new IllegalStateException("任务执行失败");
+            }
+
+            return sleep;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.tj.core.utils.concurrent.hedge;
+
+import com.tj.core.utils.concurrent.executor.AbstractSyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲执行测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class HedgedSyncTaskExecutorTest {
+
+    private final ExecutorService hedgeExecutor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * 首次请求超过对冲延迟未完成时发起对冲请求，对冲结果生效并中断首次请求
+     */
+    @Test
+    public void hedgeWinsOverSlowPrimary() throws Throwable {
+
+        SlowFirstTaskExecutor delegate = new SlowFirstTaskExecutor(true);
+        HedgedSyncTaskExecutor<Integer, Integer> executor = new HedgedSyncTaskExecutor<>(delegate, hedgeExecutor, HedgePolicy.fixedDelay(50));
+
+        long start = System.currentTimeMillis();
+        TaskResult<Integer> taskResult = executor.execute(delegate.getParam());
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(Integer.valueOf(2), taskResult.getData());
+        Assert.assertTrue(taskResult.isHedgeWon());
+        Assert.assertEquals(2, taskResult.getAttempts());
+        Assert.assertTrue(delegate.primaryInterrupted);
+    }
+
+    /**
+     * 首次请求在对冲延迟内完成时不发起对冲请求，且首次请求在调用线程执行
+     */
+    @Test
+    public void fastPrimaryRunsOnCaller() throws Throwable {
+
+        SlowFirstTaskExecutor delegate = new SlowFirstTaskExecutor(true);
+        delegate.calls.set(1);
+
+        HedgedSyncTaskExecutor<Integer, Integer> executor = new HedgedSyncTaskExecutor<>(delegate, hedgeExecutor, HedgePolicy.fixedDelay(1000));
+        TaskResult<Integer> taskResult = executor.execute(delegate.getParam());
+
+        Assert.assertFalse(taskResult.isHedgeWon());
+        Assert.assertEquals(1, taskResult.getAttempts());
+        Assert.assertSame(Thread.currentThread(), delegate.lastThread);
+    }
+
+    /**
+     * 非幂等任务直接执行，不发起对冲请求
+     */
+    @Test
+    public void nonIdempotentIsNotHedged() throws Throwable {
+
+        SlowFirstTaskExecutor delegate = new SlowFirstTaskExecutor(false);
+        HedgedSyncTaskExecutor<Integer, Integer> executor = new HedgedSyncTaskExecutor<>(delegate, hedgeExecutor, HedgePolicy.fixedDelay(10));
+
+        executor.execute(delegate.getParam());
+
+        Assert.assertEquals(1, delegate.calls.get());
+    }
+
+    /**
+     * 首次调用休眠5秒，之后的调用立即返回调用序号
+     */
+    private static class SlowFirstTaskExecutor extends AbstractSyncTaskExecutor<Integer, Integer> {
+
+        private final boolean idempotent;
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile boolean primaryInterrupted;
+
+        private volatile Thread lastThread;
+
+        SlowFirstTaskExecutor(boolean idempotent) {
+            super(new TaskParam<>(1, 0));
+            this.idempotent = idempotent;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+
+        @Override
+        public Integer invoke(Integer param) throws Exception {
+
+            int call = calls.incrementAndGet();
+            lastThread = Thread.currentThread();
+
+            if (call == 1) {
+
+                try {
+
+                    Thread.sleep(idempotent ? 5000 : 100);
+
+                } catch (InterruptedException e) {
+
+                    primaryInterrupted = true;
+                    throw e;
+                }
+            }
+
+            return call;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tj.core.utils.concurrent.threadarrange;
+
+import com.tj.core.utils.concurrent.executor.AbstractSyncTaskExecutor;
+import com.tj.core.utils.concurrent.param.TaskParam;
+import com.tj.core.utils.concurrent.param.TaskResults;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 依赖图超时与跳过结果测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class TaskGraphTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * 截止时间到期时未结束的任务返回超时结果，其后续任务返回跳过结果，调用线程在截止时间返回
+     */
+    @Test
+    public void deadlineSettlesEveryNode() throws InterruptedException {
+
+        TaskContainer<Integer, Integer> taskContainer = container(null,
+                new SleepTaskExecutor(1, 0), new SleepTaskExecutor(2, 5000), new SleepTaskExecutor(3, 0, 2));
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = new TaskGraph<>(Arrays.asList(taskContainer)).execute(start + 200);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(Integer.valueOf(0), taskResults.get(0).getData());
+        Assert.assertTrue(taskResults.get(1).isTimeout());
+        Assert.assertTrue(taskResults.get(2).isTimeout() || taskResults.get(2).isSkipped());
+    }
+
+    /**
+     * 容器超时时间作用于容器内的每个任务，超时任务的后续任务返回跳过结果
+     */
+    @Test
+    public void containerTimeoutAppliesPerNode() throws InterruptedException {
+
+        TaskContainer<Integer, Integer> first = container(null, new SleepTaskExecutor(1, 0));
+        TaskContainer<Integer, Integer> second = container(200L, new SleepTaskExecutor(2, 5000, 1), new SleepTaskExecutor(3, 0, 2));
+
+        long start = System.currentTimeMillis();
+        TaskResults<Integer, Integer> taskResults = new TaskGraph<>(Arrays.asList(first, second)).execute(null);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(Integer.valueOf(0), taskResults.get(0).getData());
+        Assert.assertTrue(taskResults.get(1).isTimeout());
+        Assert.assertTrue(taskResults.get(2).isSkipped());
+        Assert.assertFalse(taskResults.get(2).isException());
+    }
+
+    private TaskContainer<Integer, Integer> container(Long timeout, SleepTaskExecutor... syncTaskExecutors) {
+
+        TaskContainer<Integer, Integer> taskContainer = new TaskContainer<>();
+        taskContainer.setThreadPool(threadPool);
+        taskContainer.setTimeout(timeout);
+        taskContainer.setSyncTaskExecutors(Arrays.asList(syncTaskExecutors));
+
+        return taskContainer;
+    }
+
+    /**
+     * 休眠指定毫秒后返回休眠时间
+     */
+    private static class SleepTaskExecutor extends AbstractSyncTaskExecutor<Integer, Integer> {
+
+        SleepTaskExecutor(int id, int sleep, Integer... dependencies) {
+            super(new TaskParam<>(id, sleep), dependencies);
+        }
+
+        @Override
+        public Integer invoke(Integer sleep) throws Exception {
+
+            Thread.sleep(sleep);
+
+            return sleep;
+        }
+    }
+}
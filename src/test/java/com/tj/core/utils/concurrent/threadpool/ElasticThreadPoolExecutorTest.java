@@ -0,0 +1,80 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 弹性线程池已提交任务数测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class ElasticThreadPoolExecutorTest {
+
+    @Test
+    public void submittedCountAfterAbortedTasks() throws InterruptedException {
+        assertSubmittedCountDrains(new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Test
+    public void submittedCountAfterDiscardedTasks() throws InterruptedException {
+        assertSubmittedCountDrains(new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * 核心线程数1、最大线程数2、队列容量1时提交6个阻塞任务，3个被拒绝，全部执行完成后已提交任务数应回到0
+     */
+    private void assertSubmittedCountDrains(RejectedExecutionHandler handler) throws InterruptedException {
+
+        ElasticThreadPoolExecutor executor = new ElasticThreadPoolExecutor("elastic-test", 1, 2, 10, TimeUnit.SECONDS, 1, 0,
+                new CommonThreadPoolExecutors.DefaultThreadFactory("elastic-test", true), handler);
+
+        CountDownLatch release = new CountDownLatch(1);
+        int rejected = 0;
+
+        for (int i = 0; i < 6; i++) {
+
+            try {
+
+                executor.execute(() -> {
+
+                    try {
+
+                        release.await();
+
+                    } catch (InterruptedException e) {
+
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+
+                rejected++;
+            }
+        }
+
+        Assert.assertEquals(3, executor.getSubmittedCount());
+
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (executor.getCompletedTaskCount() < 3 && System.nanoTime() < deadline) {
+
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(3, executor.getCompletedTaskCount());
+        Assert.assertEquals(0, executor.getSubmittedCount());
+        Assert.assertEquals(handler instanceof ThreadPoolExecutor.AbortPolicy ? 3 : 0, rejected);
+
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package com.tj.core.utils.concurrent.threadpool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公平队列执行器重试转交与优先级测试
+ *
+ * @author tangjie
+ * @date 2022/5/22
+ */
+public class FairQueueExecutorTest {
+
+    /**
+     * 线程池拒绝且没有执行中的任务时，排队任务由定时重试在线程池中转交，不在定时线程中执行
+     */
+    @Test
+    public void idleRetryRunsParkedTaskInPool() throws InterruptedException {
+
+        ThreadPoolExecutor delegate = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new CommonThreadPoolExecutors.DefaultThreadFactory("fair-test", true), new ThreadPoolExecutor.AbortPolicy());
+        FairQueueExecutor executor = new FairQueueExecutor(delegate, 2, 10);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute(() -> await(release));
+        executor.execute(() -> {
+
+            threads.add(Thread.currentThread());
+            done.countDown();
+        });
+
+        Assert.assertEquals(1, executor.getQueuedCount());
+
+        release.countDown();
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(threads.get(0).getName().startsWith("fair-test"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (executor.getInFlightCount() > 0 && System.nanoTime() < deadline) {
+
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(0, executor.getInFlightCount());
+        Assert.assertEquals(0, executor.getQueuedCount());
+
+        delegate.shutdown();
+    }
+
+    /**
+     * 线程池以调用线程执行被拒绝的任务时不能作为公平队列的线程池
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCallerRunsDelegate() {
+
+        ThreadPoolExecutor delegate = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new CommonThreadPoolExecutors.DefaultThreadFactory("fair-test", true), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try {
+
+            new FairQueueExecutor(delegate, 1, 1);
+
+        } finally {
+
+            delegate.shutdown();
+        }
+    }
+
+    /**
+     * 转交至优先级线程池的任务保留原任务的优先级
+     */
+    @Test
+    public void dispatchKeepsPriority() throws InterruptedException {
+
+        PriorityThreadPoolExecutor delegate = new PriorityThreadPoolExecutor(1, 10,
+                new CommonThreadPoolExecutors.DefaultThreadFactory("fair-test", true), new ThreadPoolExecutor.AbortPolicy());
+        FairQueueExecutor executor = new FairQueueExecutor(delegate, 10, 10);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+
+        executor.execute(() -> await(release));
+        executor.execute(new Task(5, order, done));
+        executor.execute(new Task(1, order, done));
+
+        release.countDown();
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, order.get(0).intValue());
+        Assert.assertEquals(5, order.get(1).intValue());
+
+        delegate.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+
+            latch.await();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 记录执行顺序的优先级任务
+     */
+    private static class Task implements PrioritizedTask {
+
+        Task(int priority, List<Integer> order, CountDownLatch done) {
+            this.priority = priority;
+            this.order = order;
+            this.done = done;
+        }
+
+        private final int priority;
+
+        private final List<Integer> order;
+
+        private final CountDownLatch done;
+
+        @Override
+        public void run() {
+
+            order.add(priority);
+            done.countDown();
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public long getDeadlineNanos() {
+            return NO_DEADLINE;
+        }
+
+        @Override
+        public void expire() {
+        }
+    }
+}